@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.bundle;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * execution statistics of a single joblet.
+ * <p>
+ * The statistics are collected by the {@code JobletStatisticsListener}, if it
+ * is registered with the {@code JobletScheduler}. They are kept for at most
+ * {@link #MAX_JOBLETS} joblets, evicting the statistics updated least
+ * recently, and are cleared when the {@code Lifecycle} is shut down.
+ * </p>
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ * @see JobletStatisticsListener
+ */
+public final class JobletStatistics {
+
+	/**
+	 * the maximum number of joblets statistics are kept for.
+	 */
+	public static final int MAX_JOBLETS = 1000;
+
+	/**
+	 * the statistics of all joblets by job key.
+	 */
+	private static final ConcurrentMap<String, JobletStatistics> STATISTICS = new ConcurrentHashMap<String, JobletStatistics>();
+
+	/**
+	 * the job key of the joblet.
+	 */
+	private final String jobKey;
+
+	/**
+	 * the number of executions.
+	 */
+	private final AtomicLong executions = new AtomicLong();
+
+	/**
+	 * the number of failed executions.
+	 */
+	private final AtomicLong failures = new AtomicLong();
+
+	/**
+	 * the number of misfires.
+	 */
+	private final AtomicLong misfires = new AtomicLong();
+
+	/**
+	 * the accumulated execution time in milliseconds.
+	 */
+	private final AtomicLong totalExecutionTime = new AtomicLong();
+
+	/**
+	 * the longest execution time in milliseconds.
+	 */
+	private final AtomicLong maxExecutionTime = new AtomicLong();
+
+	/**
+	 * the time of the last update in milliseconds since the epoch.
+	 */
+	private final AtomicLong lastUpdate = new AtomicLong(
+			System.currentTimeMillis());
+
+	/**
+	 * creates new statistics.
+	 *
+	 * @param key
+	 *            the job key
+	 */
+	private JobletStatistics(final String key) {
+		this.jobKey = key;
+	}
+
+	/**
+	 * returns the statistics for the given job key, creating them if needed.
+	 *
+	 * @param key
+	 *            the job key
+	 * @return the statistics
+	 */
+	static JobletStatistics forJob(final String key) {
+		JobletStatistics stats = STATISTICS.get(key);
+		if (stats == null) {
+			if (STATISTICS.size() >= MAX_JOBLETS) {
+				evictLeastRecentlyUpdated();
+			}
+			JobletStatistics created = new JobletStatistics(key);
+			stats = STATISTICS.putIfAbsent(key, created);
+			if (stats == null) {
+				stats = created;
+			}
+		}
+		return stats;
+	}
+
+	/**
+	 * removes the statistics which have been updated least recently.
+	 */
+	private static void evictLeastRecentlyUpdated() {
+		JobletStatistics oldest = null;
+		for (JobletStatistics stats : STATISTICS.values()) {
+			if (oldest == null
+					|| stats.lastUpdate.get() < oldest.lastUpdate.get()) {
+				oldest = stats;
+			}
+		}
+		if (oldest != null) {
+			STATISTICS.remove(oldest.jobKey, oldest);
+		}
+	}
+
+	/**
+	 * @return the statistics of all joblets by job key
+	 */
+	public static Map<String, JobletStatistics> getAll() {
+		return Collections.unmodifiableMap(STATISTICS);
+	}
+
+	/**
+	 * clears all statistics.
+	 */
+	public static void reset() {
+		STATISTICS.clear();
+	}
+
+	/**
+	 * records an execution.
+	 *
+	 * @param millis
+	 *            the execution time
+	 * @param failed
+	 *            whether the execution failed
+	 */
+	void recordExecution(final long millis, final boolean failed) {
+		this.lastUpdate.set(System.currentTimeMillis());
+		this.executions.incrementAndGet();
+		if (failed) {
+			this.failures.incrementAndGet();
+		}
+		if (millis > 0) {
+			this.totalExecutionTime.addAndGet(millis);
+			long max = this.maxExecutionTime.get();
+			while (millis > max
+					&& !this.maxExecutionTime.compareAndSet(max, millis)) {
+				max = this.maxExecutionTime.get();
+			}
+		}
+	}
+
+	/**
+	 * records a misfire.
+	 */
+	void recordMisfire() {
+		this.lastUpdate.set(System.currentTimeMillis());
+		this.misfires.incrementAndGet();
+	}
+
+	/**
+	 * @return the job key
+	 */
+	public String getJobKey() {
+		return this.jobKey;
+	}
+
+	/**
+	 * @return the number of executions
+	 */
+	public long getExecutions() {
+		return this.executions.get();
+	}
+
+	/**
+	 * @return the number of failed executions
+	 */
+	public long getFailures() {
+		return this.failures.get();
+	}
+
+	/**
+	 * @return the number of misfires
+	 */
+	public long getMisfires() {
+		return this.misfires.get();
+	}
+
+	/**
+	 * @return the accumulated execution time in milliseconds
+	 */
+	public long getTotalExecutionTime() {
+		return this.totalExecutionTime.get();
+	}
+
+	/**
+	 * @return the longest execution time in milliseconds
+	 */
+	public long getMaxExecutionTime() {
+		return this.maxExecutionTime.get();
+	}
+
+	/**
+	 * @return the average execution time in milliseconds
+	 */
+	public long getAverageExecutionTime() {
+		long count = this.executions.get();
+		if (count == 0) {
+			return 0;
+		}
+		return this.totalExecutionTime.get() / count;
+	}
+
+	/**
+	 * @return a string representation of the statistics
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return this.jobKey + "[executions=" + getExecutions() + ", failures="
+				+ getFailures() + ", misfires=" + getMisfires() + ", avg="
+				+ getAverageExecutionTime() + "ms, max="
+				+ getMaxExecutionTime() + "ms]";
+	}
+
+}
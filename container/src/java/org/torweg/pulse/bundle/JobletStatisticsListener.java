@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.bundle;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobListener;
+import org.quartz.Trigger;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.TriggerListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * collects {@code JobletStatistics} for all joblets of the
+ * {@code JobletScheduler}.
+ * <p>
+ * The listener is registered through the
+ * {@code <joblet-scheduler-configuration>}, once as job listener for the
+ * execution times and once as trigger listener for the misfires:
+ * </p>
+ *
+ * <pre>
+ * &lt;property name="org.quartz.jobListener.statistics.class"
+ *     &gt;org.torweg.pulse.bundle.JobletStatisticsListener&lt;/property&gt;
+ * &lt;property name="org.quartz.triggerListener.statistics.class"
+ *     &gt;org.torweg.pulse.bundle.JobletStatisticsListener&lt;/property&gt;
+ * </pre>
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ * @see JobletStatistics
+ */
+public final class JobletStatisticsListener implements JobListener,
+		TriggerListener {
+
+	/**
+	 * the logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(JobletStatisticsListener.class);
+
+	/**
+	 * the name of the listener.
+	 */
+	private String name = "statistics";
+
+	/**
+	 * @return the name of the listener
+	 * @see org.quartz.JobListener#getName()
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * sets the name of the listener (called by the scheduler factory).
+	 *
+	 * @param n
+	 *            the name
+	 */
+	public void setName(final String n) {
+		this.name = n;
+	}
+
+	/**
+	 * @param context
+	 *            the execution context
+	 * @see org.quartz.JobListener#jobToBeExecuted(org.quartz.JobExecutionContext)
+	 */
+	public void jobToBeExecuted(final JobExecutionContext context) {
+		// nothing to record
+	}
+
+	/**
+	 * @param context
+	 *            the execution context
+	 * @see org.quartz.JobListener#jobExecutionVetoed(org.quartz.JobExecutionContext)
+	 */
+	public void jobExecutionVetoed(final JobExecutionContext context) {
+		// nothing to record
+	}
+
+	/**
+	 * records the execution time of the joblet.
+	 *
+	 * @param context
+	 *            the execution context
+	 * @param jobException
+	 *            the exception thrown by the joblet, if any
+	 * @see org.quartz.JobListener#jobWasExecuted(org.quartz.JobExecutionContext,
+	 *      org.quartz.JobExecutionException)
+	 */
+	public void jobWasExecuted(final JobExecutionContext context,
+			final JobExecutionException jobException) {
+		JobletStatistics.forJob(context.getJobDetail().getKey().toString())
+				.recordExecution(context.getJobRunTime(), jobException != null);
+	}
+
+	/**
+	 * @param trigger
+	 *            the trigger
+	 * @param context
+	 *            the execution context
+	 * @see org.quartz.TriggerListener#triggerFired(org.quartz.Trigger,
+	 *      org.quartz.JobExecutionContext)
+	 */
+	public void triggerFired(final Trigger trigger,
+			final JobExecutionContext context) {
+		// nothing to record
+	}
+
+	/**
+	 * @param trigger
+	 *            the trigger
+	 * @param context
+	 *            the execution context
+	 * @return always {@code false}
+	 * @see org.quartz.TriggerListener#vetoJobExecution(org.quartz.Trigger,
+	 *      org.quartz.JobExecutionContext)
+	 */
+	public boolean vetoJobExecution(final Trigger trigger,
+			final JobExecutionContext context) {
+		return false;
+	}
+
+	/**
+	 * records a misfire of the joblet.
+	 *
+	 * @param trigger
+	 *            the misfired trigger
+	 * @see org.quartz.TriggerListener#triggerMisfired(org.quartz.Trigger)
+	 */
+	public void triggerMisfired(final Trigger trigger) {
+		LOGGER.debug("Joblet {} misfired.", trigger.getJobKey());
+		JobletStatistics.forJob(trigger.getJobKey().toString()).recordMisfire();
+	}
+
+	/**
+	 * @param trigger
+	 *            the trigger
+	 * @param context
+	 *            the execution context
+	 * @param triggerInstructionCode
+	 *            the instruction
+	 * @see org.quartz.TriggerListener#triggerComplete(org.quartz.Trigger,
+	 *      org.quartz.JobExecutionContext,
+	 *      org.quartz.Trigger.CompletedExecutionInstruction)
+	 */
+	public void triggerComplete(final Trigger trigger,
+			final JobExecutionContext context,
+			final CompletedExecutionInstruction triggerInstructionCode) {
+		// nothing to record
+	}
+
+}
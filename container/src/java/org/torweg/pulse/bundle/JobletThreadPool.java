@@ -0,0 +1,404 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.bundle;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.quartz.SchedulerConfigException;
+import org.quartz.spi.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * a Quartz {@code ThreadPool} for the {@code JobletScheduler}, which runs
+ * every joblet in a thread of its own and only limits the number of
+ * concurrently running joblets.
+ * <p>
+ * If the JVM supports virtual threads, every joblet is started in a new
+ * virtual thread, as virtual threads are cheap and must not be pooled.
+ * Otherwise daemon threads are created on demand by a cached thread pool and
+ * re-used while there is work. As most joblets are I/O bound, a long-running
+ * joblet no longer occupies one of a handful of fixed worker threads.
+ * </p>
+ * <p>
+ * On shut down, the pool waits for running joblets at most the drain timeout
+ * and then interrupts them, so that a stuck joblet does not hold up the shut
+ * down of the {@code JobletScheduler}.
+ * </p>
+ * <p>
+ * Configuration in the {@code <joblet-scheduler-configuration>}:
+ * </p>
+ *
+ * <pre>
+ * &lt;property name="org.quartz.threadPool.class"
+ *     &gt;org.torweg.pulse.bundle.JobletThreadPool&lt;/property&gt;
+ * &lt;property name="org.quartz.threadPool.maxConcurrency"&gt;50&lt;/property&gt;
+ * &lt;property name="org.quartz.threadPool.drainTimeout"&gt;15000&lt;/property&gt;
+ * </pre>
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ * @see JobletStatisticsListener
+ */
+public final class JobletThreadPool implements ThreadPool {
+
+	/**
+	 * the logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(JobletThreadPool.class);
+
+	/**
+	 * the default maximum number of concurrently running joblets.
+	 */
+	private static final int DEFAULT_MAX_CONCURRENCY = 10;
+
+	/**
+	 * the default time in milliseconds to wait for running joblets on shut
+	 * down.
+	 */
+	private static final long DEFAULT_DRAIN_TIMEOUT = 15000;
+
+	/**
+	 * the maximum number of concurrently running joblets.
+	 */
+	private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+	/**
+	 * the time in milliseconds to wait for running joblets on shut down.
+	 */
+	private long drainTimeout = DEFAULT_DRAIN_TIMEOUT;
+
+	/**
+	 * the threads currently running a joblet.
+	 */
+	private final Set<Thread> running = Collections
+			.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+
+	/**
+	 * the name of the scheduler instance.
+	 */
+	private String instanceName = "JobletScheduler";
+
+	/**
+	 * the permits for running joblets.
+	 */
+	private Semaphore permits;
+
+	/**
+	 * the factory of the virtual threads, each running one joblet, or
+	 * {@code null}, if platform threads are used.
+	 */
+	private ThreadFactory virtualThreads;
+
+	/**
+	 * the executor running the joblets on platform threads, or {@code null},
+	 * if virtual threads are used.
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * flag, indicating whether the pool has been shut down.
+	 */
+	private volatile boolean shutdown;
+
+	/**
+	 * sets the maximum number of concurrently running joblets.
+	 *
+	 * @param max
+	 *            the maximum number of concurrently running joblets
+	 */
+	public void setMaxConcurrency(final int max) {
+		this.maxConcurrency = max;
+	}
+
+	/**
+	 * @return the maximum number of concurrently running joblets
+	 */
+	public int getMaxConcurrency() {
+		return this.maxConcurrency;
+	}
+
+	/**
+	 * sets the time to wait for running joblets on shut down, before they are
+	 * interrupted.
+	 *
+	 * @param timeout
+	 *            the time in milliseconds
+	 */
+	public void setDrainTimeout(final long timeout) {
+		this.drainTimeout = timeout;
+	}
+
+	/**
+	 * @return the time in milliseconds to wait for running joblets on shut
+	 *         down
+	 */
+	public long getDrainTimeout() {
+		return this.drainTimeout;
+	}
+
+	/**
+	 * @return the number of joblets currently running
+	 */
+	public int getActiveCount() {
+		if (this.permits == null) {
+			return 0;
+		}
+		return this.maxConcurrency - this.permits.availablePermits();
+	}
+
+	/**
+	 * initialises the pool.
+	 *
+	 * @throws SchedulerConfigException
+	 *             if the maximum concurrency is not positive
+	 * @see org.quartz.spi.ThreadPool#initialize()
+	 */
+	public void initialize() throws SchedulerConfigException {
+		if (this.maxConcurrency <= 0) {
+			throw new SchedulerConfigException(
+					"maxConcurrency must be greater than zero.");
+		}
+		this.permits = new Semaphore(this.maxConcurrency, true);
+		this.virtualThreads = createVirtualThreadFactory();
+		if (this.virtualThreads == null) {
+			this.executor = Executors.newCachedThreadPool(new DaemonThreadFactory(
+					this.instanceName));
+			LOGGER.info("JobletThreadPool uses platform threads "
+					+ "for up to {} concurrent joblets.", this.maxConcurrency);
+		} else {
+			LOGGER.info("JobletThreadPool uses virtual threads "
+					+ "for up to {} concurrent joblets.", this.maxConcurrency);
+		}
+	}
+
+	/**
+	 * runs the given {@code Runnable}, blocking until a permit is available.
+	 *
+	 * @param runnable
+	 *            the {@code Runnable} to be run
+	 * @return {@code true}, if the runnable has been handed over to a thread
+	 * @see org.quartz.spi.ThreadPool#runInThread(java.lang.Runnable)
+	 */
+	public boolean runInThread(final Runnable runnable) {
+		if (runnable == null || this.shutdown) {
+			return false;
+		}
+		try {
+			this.permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		if (this.shutdown) {
+			this.permits.release();
+			LOGGER.warn("Joblet rejected: the pool has been shut down.");
+			return false;
+		}
+		Runnable joblet = new Runnable() {
+			public void run() {
+				Thread thread = Thread.currentThread();
+				JobletThreadPool.this.running.add(thread);
+				try {
+					runnable.run();
+				} finally {
+					JobletThreadPool.this.running.remove(thread);
+					JobletThreadPool.this.permits.release();
+				}
+			}
+		};
+		if (this.virtualThreads != null) {
+			Thread thread = this.virtualThreads.newThread(joblet);
+			if (thread == null) {
+				this.permits.release();
+				LOGGER.warn("Joblet rejected: no thread created.");
+				return false;
+			}
+			thread.start();
+			return true;
+		}
+		try {
+			this.executor.execute(joblet);
+			return true;
+		} catch (RejectedExecutionException e) {
+			this.permits.release();
+			LOGGER.warn("Joblet rejected: {}", e.getLocalizedMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * blocks until at least one permit is available.
+	 *
+	 * @return the number of available permits
+	 * @see org.quartz.spi.ThreadPool#blockForAvailableThreads()
+	 */
+	public int blockForAvailableThreads() {
+		if (this.shutdown) {
+			return 0;
+		}
+		try {
+			this.permits.acquire();
+			this.permits.release();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return 0;
+		}
+		return Math.max(1, this.permits.availablePermits());
+	}
+
+	/**
+	 * @return the maximum number of concurrently running joblets
+	 * @see org.quartz.spi.ThreadPool#getPoolSize()
+	 */
+	public int getPoolSize() {
+		return this.maxConcurrency;
+	}
+
+	/**
+	 * shuts the pool down.
+	 * <p>
+	 * If asked to wait, the running joblets are waited for at most the drain
+	 * timeout. Joblets still running then are interrupted and left to finish
+	 * on their own.
+	 * </p>
+	 *
+	 * @param waitForJobsToComplete
+	 *            whether to wait for the running joblets to complete
+	 * @see org.quartz.spi.ThreadPool#shutdown(boolean)
+	 */
+	public void shutdown(final boolean waitForJobsToComplete) {
+		this.shutdown = true;
+		if (this.executor != null) {
+			this.executor.shutdown();
+		}
+		if (waitForJobsToComplete && this.permits != null) {
+			long deadline = System.currentTimeMillis() + this.drainTimeout;
+			/* all permits are available again, once all joblets are done */
+			try {
+				while (!this.permits.tryAcquire(this.maxConcurrency, Math.min(
+						1000, Math.max(0, deadline - System.currentTimeMillis())),
+						TimeUnit.MILLISECONDS)) {
+					if (System.currentTimeMillis() >= deadline) {
+						LOGGER.warn("Interrupting {} joblet(s) still running "
+								+ "after {} ms.", getActiveCount(),
+								this.drainTimeout);
+						for (Thread thread : this.running) {
+							thread.interrupt();
+						}
+						return;
+					}
+					LOGGER.debug("Waiting for {} joblet(s) to complete.",
+							getActiveCount());
+				}
+				this.permits.release(this.maxConcurrency);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * @param schedInstId
+	 *            the scheduler instance id
+	 * @see org.quartz.spi.ThreadPool#setInstanceId(java.lang.String)
+	 */
+	public void setInstanceId(final String schedInstId) {
+		// not needed
+	}
+
+	/**
+	 * @param schedName
+	 *            the scheduler name, used for naming the threads
+	 * @see org.quartz.spi.ThreadPool#setInstanceName(java.lang.String)
+	 */
+	public void setInstanceName(final String schedName) {
+		this.instanceName = schedName;
+	}
+
+	/**
+	 * creates a {@code ThreadFactory} for virtual threads via reflection.
+	 *
+	 * @return the factory, or {@code null}, if the JVM does not support
+	 *         virtual threads
+	 */
+	private ThreadFactory createVirtualThreadFactory() {
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderClass.getMethod("name", String.class, long.class)
+					.invoke(builder, this.instanceName + "-joblet-", 0L);
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(
+					builder);
+		} catch (Exception e) {
+			LOGGER.trace("Virtual threads not available: {}",
+					e.getLocalizedMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * creates named daemon threads.
+	 */
+	private static final class DaemonThreadFactory implements ThreadFactory {
+
+		/**
+		 * the thread name prefix.
+		 */
+		private final String prefix;
+
+		/**
+		 * the thread counter.
+		 */
+		private final AtomicInteger counter = new AtomicInteger();
+
+		/**
+		 * creates a new factory.
+		 *
+		 * @param name
+		 *            the scheduler name
+		 */
+		private DaemonThreadFactory(final String name) {
+			this.prefix = name + "-joblet-";
+		}
+
+		/**
+		 * @param r
+		 *            the runnable
+		 * @return a new daemon thread
+		 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+		 */
+		public Thread newThread(final Runnable r) {
+			Thread thread = new Thread(r, this.prefix
+					+ this.counter.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
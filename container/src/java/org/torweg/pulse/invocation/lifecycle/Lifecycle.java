@@ -18,22 +18,36 @@
 package org.torweg.pulse.invocation.lifecycle;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.xml.bind.JAXBContext;
@@ -47,6 +61,7 @@ import org.slf4j.LoggerFactory;
 import org.torweg.pulse.annotations.Action.Security;
 import org.torweg.pulse.bundle.Bundle;
 import org.torweg.pulse.bundle.JobletScheduler;
+import org.torweg.pulse.bundle.JobletStatistics;
 import org.torweg.pulse.component.Component;
 import org.torweg.pulse.configuration.Configuration;
 import org.torweg.pulse.configuration.PoorMansCache;
@@ -101,11 +116,44 @@ public final class Lifecycle {
 	private static final Logger LOGGER = LoggerFactory
 			.getLogger(Lifecycle.class);
 
+	/**
+	 * the time in milliseconds the whole shut down may take.
+	 */
+	private static final long SHUTDOWN_TIMEOUT = MillisecondConstant.MINUTE
+			.getValue();
+
+	/**
+	 * the twelfth part of the {@link #SHUTDOWN_TIMEOUT}, the unit of the time
+	 * budgets of the shut down steps, which add up to the whole timeout.
+	 */
+	private static final long SHUTDOWN_SHARE = SHUTDOWN_TIMEOUT / 12;
+
+	/**
+	 * the name of the configuration file used for unit tests.
+	 */
+	private static final String TEST_CONFIGURATION = "test.xml";
+
+	/**
+	 * the name of the startup cache file below {@code WEB-INF}.
+	 */
+	private static final String STARTUP_CACHE_FILE = "startup-cache.ser";
+
+	/**
+	 * the tasks to be run before the {@code Lifecycle} reports to be ready.
+	 */
+	private static final List<Runnable> WARM_UP_TASKS = new CopyOnWriteArrayList<Runnable>();
+
 	/**
 	 * the singleton itself.
 	 */
 	private static Lifecycle lifecycleInstance;
 
+	/**
+	 * the coordinator of the last shut down, whose unfinished steps may still
+	 * be running.
+	 */
+	private static LifecycleShutdownCoordinator lastShutdown;
+
 	/**
 	 * the default random source (usually a {@code SecureRandom}).
 	 */
@@ -196,6 +244,11 @@ public final class Lifecycle {
 	 */
 	private JSONJAXBContext jsonJaxbContext;
 
+	/**
+	 * the thread warming up the file system based search indexes.
+	 */
+	private Thread searchIndexWarmUp;
+
 	/**
 	 * the salt to be used for creating salted hashes.
 	 * 
@@ -210,6 +263,49 @@ public final class Lifecycle {
 	 */
 	private String configurationFile;
 
+	/**
+	 * the startup profile.
+	 */
+	private StartupProfile startupProfile = StartupProfile.FULL;
+
+	/**
+	 * the sub-systems which have not been started yet and are to be started
+	 * on first access.
+	 */
+	private final Set<Subsystem> pendingSubsystems = Collections
+			.newSetFromMap(new ConcurrentHashMap<Subsystem, Boolean>());
+
+	/**
+	 * the current phase.
+	 */
+	private final LifecyclePhaseSwitch phase = new LifecyclePhaseSwitch(
+			LifecyclePhase.STARTING);
+
+	/**
+	 * the current step of the current phase.
+	 */
+	private volatile String currentStep;
+
+	/**
+	 * the number of steps of the current phase begun so far.
+	 */
+	private volatile int stepIndex;
+
+	/**
+	 * the number of steps of the current phase.
+	 */
+	private volatile int stepCount = InitStep.values().length;
+
+	/**
+	 * the degraded sub-systems with the reason.
+	 */
+	private final Map<String, String> degradedSubsystems = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * the {@code LifecycleContext} of this instance.
+	 */
+	private final LifecycleContext context = new InstanceContext();
+
 	/**
 	 * private constructor for the singleton.
 	 * 
@@ -228,10 +324,7 @@ public final class Lifecycle {
 	 * @return the bundles of the <em>pulse</em> container
 	 */
 	public static Collection<Bundle> getBundles() {
-		if (lifecycleInstance != null) {
-			return lifecycleInstance.bundles.values();
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().getBundles();
 	}
 
 	/**
@@ -244,12 +337,17 @@ public final class Lifecycle {
 	 *             if the named bundle cannot be found
 	 */
 	public static Bundle getBundle(final String name) {
+		return getDefaultContext().getBundle(name);
+	}
+
+	/**
+	 * returns the {@code LifecycleContext} of the running {@code Lifecycle}.
+	 * 
+	 * @return the default {@code LifecycleContext}
+	 */
+	public static LifecycleContext getDefaultContext() {
 		if (lifecycleInstance != null) {
-			Bundle b = lifecycleInstance.bundles.get(name);
-			if (b != null) {
-				return b;
-			}
-			throw new BundleNotFoundException(name);
+			return lifecycleInstance.context;
 		}
 		throw new LifecycleException("The Lifecycle has not been started.");
 	}
@@ -262,10 +360,7 @@ public final class Lifecycle {
 	 * @return the containers root directory
 	 */
 	public static File getBasePath() {
-		if (lifecycleInstance != null) {
-			return lifecycleInstance.pulseRootDir.getAbsoluteFile();
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().getBasePath();
 	}
 
 	/**
@@ -274,10 +369,7 @@ public final class Lifecycle {
 	 * @return the {@code HibernateDataSource}
 	 */
 	public static HibernateDataSource getHibernateDataSource() {
-		if (lifecycleInstance != null) {
-			return lifecycleInstance.hibernateDataSource;
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().getHibernateDataSource();
 	}
 
 	/**
@@ -286,10 +378,7 @@ public final class Lifecycle {
 	 * @return the {@code IGeoLocationProvider}
 	 */
 	public static IGeoLocationProvider getGeoLocationProvider() {
-		if (lifecycleInstance != null) {
-			return lifecycleInstance.geoLocationProvider;
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().getGeoLocationProvider();
 	}
 
 	/**
@@ -298,10 +387,7 @@ public final class Lifecycle {
 	 * @return the captcha-adapter
 	 */
 	public static ICaptchaAdapter<?> getCaptchaAdapter() {
-		if (lifecycleInstance != null) {
-			return lifecycleInstance.captchaAdapter;
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().getCaptchaAdapter();
 	}
 
 	/**
@@ -311,10 +397,7 @@ public final class Lifecycle {
 	 * @return the {@code Lifecycle}s' {@code FopFactory}-instance
 	 */
 	public static FopFactory getFopFactory() {
-		if (lifecycleInstance != null) {
-			return lifecycleInstance.fopFactoryInstance;
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().getFopFactory();
 	}
 
 	/**
@@ -322,7 +405,7 @@ public final class Lifecycle {
 	 * @return the global JAXBContext
 	 */
 	public static JAXBContext getJAXBContext() {
-		return lifecycleInstance.jaxbContext;
+		return getDefaultContext().getJAXBContext();
 	}
 
 	/**
@@ -331,7 +414,7 @@ public final class Lifecycle {
 	 *         of {@code JSONConfiguration#Notation#NATURAL}
 	 */
 	public static JSONJAXBContext getJSONJAXBContext() {
-		return lifecycleInstance.jsonJaxbContext;
+		return getDefaultContext().getJSONJAXBContext();
 	}
 
 	/**
@@ -343,11 +426,7 @@ public final class Lifecycle {
 	 * @see #getActiveLocales()
 	 */
 	public static Collection<Locale> getKnownLocales() {
-		if (lifecycleInstance != null) {
-			return convertLocaleList(lifecycleInstance.applicationLocales,
-					false);
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().getKnownLocales();
 	}
 
 	/**
@@ -383,10 +462,7 @@ public final class Lifecycle {
 	 * @see #getKnownLocales()
 	 */
 	public static Collection<Locale> getActiveLocales() {
-		if (lifecycleInstance != null) {
-			return convertLocaleList(lifecycleInstance.applicationLocales, true);
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().getActiveLocales();
 	}
 
 	/**
@@ -398,29 +474,7 @@ public final class Lifecycle {
 	 * @return all {@code Locale}s known to the system
 	 */
 	public static Collection<Locale> getSystemLocales() {
-		if (lifecycleInstance != null) {
-
-			// used for filtering
-			Map<String, Locale> systemLocales = new HashMap<String, Locale>();
-
-			// add all locales as provided by Locale itself
-			for (Locale locale : Locale.getAvailableLocales()) {
-				systemLocales.put(locale.toString(), locale);
-			}
-
-			// add application locales
-			for (Locale locale : convertLocaleList(lifecycleInstance.applicationLocales)) {
-				systemLocales.put(locale.toString(), locale);
-			}
-
-			// add system locales
-			for (Locale locale : convertLocaleList(lifecycleInstance.systemLocales)) {
-				systemLocales.put(locale.toString(), locale);
-			}
-
-			return systemLocales.values();
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().getSystemLocales();
 	}
 
 	/**
@@ -429,10 +483,7 @@ public final class Lifecycle {
 	 * @return the {@code MailQueue}
 	 */
 	public static MailQueue getMailQueue() {
-		if (lifecycleInstance != null) {
-			return lifecycleInstance.mailQueue;
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().getMailQueue();
 	}
 
 	/**
@@ -441,11 +492,7 @@ public final class Lifecycle {
 	 * @return {@code true}, if TLS is available
 	 */
 	public static boolean isTransportLayerSecurityAvailable() {
-		if (lifecycleInstance != null) {
-			return lifecycleInstance.getPulseConfiguration()
-					.isTransportLayerSecurityAvailable();
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().isTransportLayerSecurityAvailable();
 	}
 
 	/**
@@ -456,11 +503,7 @@ public final class Lifecycle {
 	 * @see #isTransportLayerSecurityAvailable()
 	 */
 	public static Security getWeakestCommandSecurityLevel() {
-		if (lifecycleInstance != null) {
-			return lifecycleInstance.getPulseConfiguration()
-					.getWeakestCommandSecurityLevel();
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().getWeakestCommandSecurityLevel();
 	}
 
 	/**
@@ -469,10 +512,7 @@ public final class Lifecycle {
 	 * @return the port to be used for standard HTTP connections
 	 */
 	public static int getDefaultPort() {
-		if (lifecycleInstance != null) {
-			return lifecycleInstance.getPulseConfiguration().getDefaultPort();
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().getDefaultPort();
 	}
 
 	/**
@@ -481,10 +521,7 @@ public final class Lifecycle {
 	 * @return the port to be used for secure (HTTPS) connections
 	 */
 	public static int getSecurePort() {
-		if (lifecycleInstance != null) {
-			return lifecycleInstance.getPulseConfiguration().getSecurePort();
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().getSecurePort();
 	}
 
 	/**
@@ -494,15 +531,17 @@ public final class Lifecycle {
 	 * @return the versioning prefix
 	 */
 	public static String getVersioningPrefix() {
-		if (lifecycleInstance != null) {
-			return lifecycleInstance.getPulseConfiguration()
-					.getVersioningPrefix();
-		}
-		throw new LifecycleException("The Lifecycle has not been started.");
+		return getDefaultContext().getVersioningPrefix();
 	}
 
 	/**
 	 * returns a seeded {@code SecureRandom}.
+	 * <p>
+	 * Unlike the other getters, this one does not go through
+	 * {@link #getDefaultContext()}: the random source is shared by the whole
+	 * JVM rather than being state of the running instance, and callers rely
+	 * on getting it (or {@code null}) without a started {@code Lifecycle}.
+	 * </p>
 	 * 
 	 * @return the default random source
 	 */
@@ -510,6 +549,61 @@ public final class Lifecycle {
 		return random;
 	}
 
+	/**
+	 * returns the current status of the {@code Lifecycle}.
+	 * <p>
+	 * This method never throws; if the {@code Lifecycle} has not been started,
+	 * the phase is {@link LifecyclePhase#STOPPED}.
+	 * </p>
+	 * 
+	 * @return the current status
+	 */
+	public static LifecycleStatus getStatus() {
+		Lifecycle lc = lifecycleInstance;
+		if (lc == null) {
+			return new LifecycleStatus(LifecyclePhase.STOPPED, 0, null,
+					Collections.<String, String> emptyMap());
+		}
+		LifecyclePhase current = lc.phase.get();
+		int percent;
+		if (current == LifecyclePhase.READY) {
+			percent = 100;
+		} else if (lc.stepCount == 0) {
+			percent = 0;
+		} else {
+			percent = Math.min(99, Math.max(0, lc.stepIndex - 1) * 100
+					/ lc.stepCount);
+		}
+		return new LifecycleStatus(current, percent, lc.currentStep,
+				lc.degradedSubsystems);
+	}
+
+	/**
+	 * registers a task to be run after startup and before the
+	 * {@code Lifecycle} reports to be ready, e.g. to replay recorded requests.
+	 * <p>
+	 * The tasks are run on every (re-)start. A failing task marks the warm-up
+	 * as degraded, but does not prevent the {@code Lifecycle} from becoming
+	 * ready.
+	 * </p>
+	 * 
+	 * @param task
+	 *            the warm-up task
+	 */
+	public static void addWarmUpTask(final Runnable task) {
+		WARM_UP_TASKS.add(task);
+	}
+
+	/**
+	 * removes a previously registered warm-up task.
+	 * 
+	 * @param task
+	 *            the warm-up task
+	 */
+	public static void removeWarmUpTask(final Runnable task) {
+		WARM_UP_TASKS.remove(task);
+	}
+
 	/**
 	 * creates a salted SHA-512 hash of the given byte array.
 	 * 
@@ -521,15 +615,7 @@ public final class Lifecycle {
 	 */
 	public static byte[] getSaltedHash(final byte[] src)
 			throws NoSuchAlgorithmException {
-		if (lifecycleInstance.serverSalt.length == 0) {
-			return MessageDigest.getInstance("SHA-512").digest(src);
-		}
-		byte[] salted = new byte[src.length
-				+ lifecycleInstance.serverSalt.length];
-		System.arraycopy(src, 0, salted, 0, src.length);
-		System.arraycopy(lifecycleInstance.serverSalt, 0, salted, src.length,
-				lifecycleInstance.serverSalt.length);
-		return MessageDigest.getInstance("SHA-512").digest(salted);
+		return getDefaultContext().getSaltedHash(src);
 	}
 
 	/**
@@ -539,21 +625,22 @@ public final class Lifecycle {
 	 *            the root directory of the <em>pulse</em> webapp
 	 */
 	public static synchronized void startup(final File pulseWebapp) { // NOPMD
-		if (lifecycleInstance == null) {
-			Lifecycle localLifecycle = new Lifecycle(pulseWebapp);
-			localLifecycle.setConfigurationFile("pulse.xml");
-			lifecycleInstance = localLifecycle;
-			try {
-				localLifecycle.init();
-			} catch (Exception e) {
-				lifecycleInstance = null; // NOPMD
-				throw new LifecycleException("Error while starting Lifecycle: "
-						+ e.getLocalizedMessage(), e);
-			}
-		} else {
-			throw new LifecycleException("Lifecycle has already been started.");
-		}
-		LOGGER.info("The Lifecycle has begun...");
+		start(pulseWebapp, "pulse.xml", StartupProfile.FULL);
+	}
+
+	/**
+	 * initialises the Lifecyle singleton using the given
+	 * {@code StartupProfile}, e.g. for command line tools, which only need a
+	 * few sub-systems.
+	 * 
+	 * @param pulseWebapp
+	 *            the root directory of the <em>pulse</em> webapp
+	 * @param profile
+	 *            the startup profile
+	 */
+	public static synchronized void startup(final File pulseWebapp,
+			final StartupProfile profile) { // NOPMD
+		start(pulseWebapp, "pulse.xml", profile);
 	}
 
 	/**
@@ -563,13 +650,83 @@ public final class Lifecycle {
 	 *            the root directory of the <em>pulse</em> webapp
 	 */
 	public static synchronized void testStartup(final File pulseWebapp) { // NOPMD
+		start(pulseWebapp, TEST_CONFIGURATION, StartupProfile.FULL);
+	}
+
+	/**
+	 * initialises the Lifecyle singleton for unit tests using the given
+	 * {@code StartupProfile}.
+	 * 
+	 * @param pulseWebapp
+	 *            the root directory of the <em>pulse</em> webapp
+	 * @param profile
+	 *            the startup profile
+	 */
+	public static synchronized void testStartup(final File pulseWebapp,
+			final StartupProfile profile) { // NOPMD
+		start(pulseWebapp, TEST_CONFIGURATION, profile);
+	}
+
+	/**
+	 * shuts the running Lifecycle singleton down and starts it again with the
+	 * same webapp root and configuration file.
+	 * <p>
+	 * The shut down stops the bundles, the JobletScheduler, the mail queue,
+	 * the data source, the geo location provider and the config pool, which
+	 * are created again by the start. The static random source and the joblet
+	 * statistics are reset. The VirtualFileSystem has no shut down of its
+	 * own: it keeps its state until the start initialises it again with the
+	 * re-read configuration.
+	 * </p>
+	 * <p>
+	 * If steps of the shut down are still running after its deadline, the
+	 * start waits for them and fails, if they do not finish in time.
+	 * </p>
+	 */
+	public static synchronized void restart() { // NOPMD
+		if (lifecycleInstance == null) {
+			throw new LifecycleException("The Lifecycle has not been started.");
+		}
+		File pulseWebapp = lifecycleInstance.pulseRootDir;
+		String configuration = lifecycleInstance.configurationFile;
+		StartupProfile profile = lifecycleInstance.startupProfile;
+		shutdown();
+		start(pulseWebapp, configuration, profile);
+	}
+
+	/**
+	 * creates and initialises the Lifecycle singleton.
+	 * 
+	 * @param pulseWebapp
+	 *            the root directory of the <em>pulse</em> webapp
+	 * @param configuration
+	 *            the name of the configuration file
+	 * @param profile
+	 *            the startup profile
+	 */
+	private static void start(final File pulseWebapp,
+			final String configuration, final StartupProfile profile) {
 		if (lifecycleInstance == null) {
+			awaitLastShutdown();
 			Lifecycle localLifecycle = new Lifecycle(pulseWebapp);
-			localLifecycle.setConfigurationFile("test.xml");
+			localLifecycle.setConfigurationFile(configuration);
+			localLifecycle.startupProfile = profile;
 			lifecycleInstance = localLifecycle;
 			try {
 				localLifecycle.init();
 			} catch (Exception e) {
+				localLifecycle.phase.set(LifecyclePhase.STOPPING);
+				/*
+				 * tear down what has been started, so a restart is possible;
+				 * destroy() guards each of its steps separately
+				 */
+				try {
+					localLifecycle.destroy();
+				} catch (Exception ex) {
+					LOGGER.warn("Error cleaning up failed Lifecycle: {}",
+							ex.getLocalizedMessage());
+				}
+				resetStaticState();
 				lifecycleInstance = null; // NOPMD
 				throw new LifecycleException("Error while starting Lifecycle: "
 						+ e.getLocalizedMessage(), e);
@@ -577,8 +734,12 @@ public final class Lifecycle {
 		} else {
 			throw new LifecycleException("Lifecycle has already been started.");
 		}
+		lifecycleInstance.warmUp();
+		lifecycleInstance.currentStep = null; // NOPMD
+		lifecycleInstance.phase.set(LifecyclePhase.READY);
 		LOGGER.info("The Lifecycle has begun...");
 	}
+
 	// /**
 	// * @return the Lifecycle singleton
 	// */
@@ -595,7 +756,9 @@ public final class Lifecycle {
 	 */
 	public static synchronized void shutdown() { // NOPMD
 		if (lifecycleInstance != null) {
+			lifecycleInstance.phase.set(LifecyclePhase.STOPPING);
 			lifecycleInstance.destroy();
+			resetStaticState();
 			lifecycleInstance = null; // NOPMD by thomas on 29.02.08 21:32
 		} else {
 			LOGGER.warn("The Lifecycle has not been started!");
@@ -603,6 +766,36 @@ public final class Lifecycle {
 		LOGGER.info("The Lifecycle has stopped...");
 	}
 
+	/**
+	 * waits for the steps of the last shut down, which have not finished
+	 * before its deadline.
+	 * 
+	 * @throws LifecycleException
+	 *             if the steps are still running after another
+	 *             {@link #SHUTDOWN_TIMEOUT}
+	 */
+	private static void awaitLastShutdown() {
+		if (lastShutdown == null) {
+			return;
+		}
+		if (!lastShutdown.awaitStillRunning(SHUTDOWN_TIMEOUT)) {
+			throw new LifecycleException(
+					"Cannot start the Lifecycle, the last shut down is still running: "
+							+ lastShutdown.getStillRunning());
+		}
+		lastShutdown = null; // NOPMD
+	}
+
+	/**
+	 * resets the static state held by the {@code Lifecycle} itself and the
+	 * statistics of the joblets.
+	 */
+	private static void resetStaticState() {
+		random = null; // NOPMD
+		lastRandomSeeding = 0;
+		JobletStatistics.reset();
+	}
+
 	/* --- START: protected direct access methods for Lifecycle tasks --------- */
 
 	/**
@@ -690,6 +883,25 @@ public final class Lifecycle {
 		this.mailQueue = mc;
 	}
 
+	/**
+	 * used by {@code LifecycleSearchTasks}.
+	 * 
+	 * @return the configuration file
+	 */
+	protected File getConfigurationFileDirectly() {
+		return new File(this.coreConfigDir, this.configurationFile);
+	}
+
+	/**
+	 * used by some Lifecycle tasks.
+	 * 
+	 * @return {@code true}, if the Lifecycle has been started with the test
+	 *         configuration
+	 */
+	protected boolean isTestConfiguration() {
+		return TEST_CONFIGURATION.equals(this.configurationFile);
+	}
+
 	/**
 	 * gives internal access to the pulse configuration.
 	 * 
@@ -780,139 +992,363 @@ public final class Lifecycle {
 	 */
 	private void init() {
 
+		beginStep(InitStep.RANDOM_SOURCE);
 		/* create random source */
 		createRandom();
 
+		beginStep(InitStep.JAXB_CONTEXT);
 		/* initialise the JAXBContext */
 		LifecycleJAXBTasks.initialiseJAXBContext(this);
 
+		beginStep(InitStep.CONFIG_POOL);
 		/* create config pool */
 		initialiseLocalCache(this);
 
+		beginStep(InitStep.JOBLET_SCHEDULER);
 		/* initialise the JobletScheduler */
 		initializeJobletScheduler();
 
+		beginStep(InitStep.COMPONENTS);
 		/* identify and initialise components */
 		initialiseComponents();
 
+		beginStep(InitStep.BUNDLE_IDENTIFICATION);
 		/* identify bundles */
 		List<File> bundleDirs = identifyBundles();
 
+		beginStep(InitStep.BUNDLES);
 		/* initialise bundles */
 		LifecycleBundleTasks.initialiseBundles(bundleDirs, this);
 
+		beginStep(InitStep.BUNDLE_JAXB_CONTEXT);
 		/* re-initialise the JAXBContext */
 		LifecycleJAXBTasks.initialiseJAXBContext(this);
 
+		beginStep(InitStep.HIBERNATE);
 		/* initialise Hibernate */
 		LifecycleHibernateTasks.initialiseHibernate(this);
 
+		beginStep(InitStep.REGISTRIES);
 		/* initialise ContentRegistry */
 		LifecycleHibernateTasks.initialiseRegistries(this);
 
+		beginStep(InitStep.SEARCH_INDEXES);
+		/* warm up file system based search indexes in the background */
+		this.searchIndexWarmUp = LifecycleSearchTasks.warmUpSearchIndexes(this);
+
+		beginStep(InitStep.CONTROLLER_ANNOTATIONS);
 		/* process annotations */
 		LifecycleBundleTasks.processControllerAnnotations(this);
 
+		beginStep(InitStep.USERS_AND_GROUPS);
 		/* initialise users and groups */
 		LifecycleAccessControlTasks.initialiseUsersAndGroups(this);
 
+		beginStep(InitStep.MAIN_XSL);
 		/* read main XSL */
-		try {
-			PoorMansCache.getXSLHandle(new File(this.pulseRootDir
-					.getAbsolutePath()
-					+ File.separator
-					+ "WEB-INF"
-					+ File.separator + "xsl" + File.separator + "main.xsl"));
-		} catch (Exception e) {
-			LOGGER.error(e.getLocalizedMessage(), e);
-		}
-
-		/* start the mail queue */
-		LifecycleMailQueueTasks.startMailQueue(this);
-
-		/* start the IP to country locator */
-		startGeoLocationProvider(this);
-
-		/* initialises the captcha-adapter */
-		initializeCaptchaAdapter(this);
+		loadMainXSL();
 
-		/* initialises the fop-factory-instance */
-		initializeFopFactoryInstance(this);
+		beginStep(InitStep.SUBSYSTEMS);
+		if (this.startupProfile == StartupProfile.ON_DEMAND) {
+			/* mail queue, geo location, captcha and FOP on first access */
+			this.pendingSubsystems.addAll(Arrays.asList(Subsystem.values()));
+		} else {
+			for (Subsystem subsystem : Subsystem.values()) {
+				startSubsystem(subsystem);
+			}
+		}
 
+		beginStep(InitStep.VIRTUAL_FILE_SYSTEM);
 		/* initialises the VFS */
 		initialiseVirtualFileSystem();
 
+		beginStep(InitStep.SCHEDULER);
 		/* start the scheduler */
 		JobletScheduler.resume();
 
 		/* start the WatchDog, if needed */
-		startWatchDog();
+		if (this.startupProfile != StartupProfile.ON_DEMAND) {
+			startWatchDog();
+		}
 
 	}
 
 	/**
 	 * actually performs the shut down process.
+	 * <p>
+	 * The whole shut down is bounded by {@link #SHUTDOWN_TIMEOUT}, of which
+	 * every step gets a fixed share: the WatchDog 2/12, pausing the
+	 * JobletScheduler 1/12, the bundles 2/12, the JobletScheduler 4/12, the
+	 * mail queue, the data source and the geo location provider, which are
+	 * stopped concurrently, 2/12 and the config pool 1/12. Thus a stuck step
+	 * never takes the time of the following ones and the sub-systems holding
+	 * threads and connections are always closed. The JobletScheduler's
+	 * {@code JobletThreadPool} waits for running joblets at most its drain
+	 * timeout and then interrupts them, so that the JobletScheduler stops
+	 * within its share.
+	 * </p>
+	 * <p>
+	 * Every step is guarded on its own, i.e. a failing step does not stop the
+	 * following ones. A step not finished within its share is left to finish
+	 * in the background. Only the steps depending on it are skipped: the
+	 * bundles and the config pool are not stopped while the WatchDog may
+	 * still be reloading them. A new start waits for the unfinished steps
+	 * (see {@link #awaitLastShutdown()}).
+	 * </p>
 	 */
 	private void destroy() {
+		final Lifecycle lc = this;
+		final LifecycleShutdownCoordinator coordinator = new LifecycleShutdownCoordinator(
+				SHUTDOWN_TIMEOUT);
+		lastShutdown = coordinator; // NOPMD
+
+		/* stop warming up the search indexes */
+		if (this.searchIndexWarmUp != null) {
+			this.searchIndexWarmUp.interrupt();
+		}
+
 		/* stop the watchdog */
-		stopWatchDog(this);
+		coordinator.run("WatchDog", 2 * SHUTDOWN_SHARE, new Runnable() {
+			public void run() {
+				stopWatchDog(lc, 2 * SHUTDOWN_SHARE);
+			}
+		});
 
 		/* pause scheduler before stopping bundles */
-		JobletScheduler.pause();
+		coordinator.run("JobletScheduler (pause)", SHUTDOWN_SHARE,
+				new Runnable() {
+					public void run() {
+						JobletScheduler.pause();
+					}
+				});
 
-		/* stop the bundles */
-		LifecycleBundleTasks.stopBundles(this);
+		/* stop the bundles, unless the WatchDog may still reload them */
+		coordinator.run("bundles", 2 * SHUTDOWN_SHARE, new Runnable() {
+			public void run() {
+				LifecycleBundleTasks.stopBundles(lc);
+			}
+		}, "WatchDog");
+
+		/* stop the JobletScheduler, letting running joblets finish */
+		coordinator.run("JobletScheduler", 4 * SHUTDOWN_SHARE,
+				new Runnable() {
+					public void run() {
+						stopJobletScheduler();
+					}
+				});
 
-		/* stop the JobletScheduler */
-		stopJobletScheduler();
+		Map<String, Runnable> independent = new LinkedHashMap<String, Runnable>();
 
-		/* stop the mail queue */
-		LifecycleMailQueueTasks.stopMailQueue(this);
+		/* stop the mail queue, letting running sends finish */
+		if (!this.pendingSubsystems.contains(Subsystem.MAIL_QUEUE)) {
+			independent.put("MailQueue", new Runnable() {
+				public void run() {
+					LifecycleMailQueueTasks.stopMailQueue(lc);
+				}
+			});
+		}
 
 		/* close the hibernate datasource */
 		if (this.hibernateDataSource != null) {
-			this.hibernateDataSource.close();
+			independent.put("HibernateDataSource", new Runnable() {
+				public void run() {
+					lc.hibernateDataSource.close();
+				}
+			});
 		} else {
 			LOGGER.warn("The HibernateDataSource was null.");
 		}
 
 		/* stop the ip to country service */
 		if (this.geoLocationProvider != null) {
-			this.geoLocationProvider.shutdown();
+			independent.put("GeoLocationProvider", new Runnable() {
+				public void run() {
+					lc.geoLocationProvider.shutdown();
+				}
+			});
 		} else {
 			LOGGER.info("The GeoLocationProvider was null.");
 		}
 
-		/* stop the config pool */
-		stopLocalCache();
+		coordinator.runConcurrently(independent, 2 * SHUTDOWN_SHARE);
+
+		/* stop the config pool, unless the WatchDog may still reload it */
+		coordinator.run("local cache", SHUTDOWN_SHARE, new Runnable() {
+			public void run() {
+				stopLocalCache();
+			}
+		}, "WatchDog");
+
+		coordinator.report();
 	}
 
 	/**
-	 * creates the default random source.
+	 * records the beginning of the given step of the startup.
+	 * 
+	 * @param step
+	 *            the step
 	 */
-	private void createRandom() {
-		try {
-			random = SecureRandom.getInstance("SHA1PRNG");
-			random.nextBytes(new byte[32]); // force internal seeding
-		} catch (NoSuchAlgorithmException e) {
-			LOGGER.warn(
-					"Not using SecureRandom 'SHA1PRNG', falling back to system default: {}",
-					e.getLocalizedMessage());
-			random = new SecureRandom();
-			random.setSeed(random.generateSeed(32));
-		}
-		lastRandomSeeding = System.currentTimeMillis();
+	private void beginStep(final InitStep step) {
+		this.stepCount = InitStep.values().length;
+		this.stepIndex = step.ordinal();
+		beginStep(step.toString());
 	}
 
 	/**
-	 * stops the LocalCache.
+	 * records the beginning of the next step of the current phase.
+	 * 
+	 * @param step
+	 *            the name of the step
 	 */
-	private void stopLocalCache() {
-		LOGGER.trace("Stopping the local cache...");
-		if (PoorMansCache.getInstance() != null) {
-			((PoorMansCache) PoorMansCache.getInstance()).shutdown();
-		} else {
-			LOGGER.info("PoorMansCache was null.");
+	private void beginStep(final String step) {
+		this.currentStep = step;
+		this.stepIndex++;
+		LOGGER.trace("Lifecycle {}: {}", this.phase.get(), step);
+	}
+
+	/**
+	 * marks a sub-system as degraded.
+	 * 
+	 * @param subsystem
+	 *            the sub-system
+	 * @param reason
+	 *            the reason
+	 */
+	private void markDegraded(final String subsystem, final String reason) {
+		this.degradedSubsystems.put(subsystem, String.valueOf(reason));
+	}
+
+	/**
+	 * removes the given sub-system from the degraded sub-systems, e.g. after
+	 * it has been restarted successfully.
+	 * 
+	 * @param subsystem
+	 *            the sub-system
+	 */
+	private void clearDegraded(final String subsystem) {
+		if (this.degradedSubsystems.remove(subsystem) != null) {
+			LOGGER.info("{} is no longer degraded.", subsystem);
+		}
+	}
+
+	/**
+	 * reads the main XSL.
+	 */
+	private void loadMainXSL() {
+		try {
+			PoorMansCache.getXSLHandle(new File(this.pulseRootDir
+					.getAbsolutePath()
+					+ File.separator
+					+ "WEB-INF"
+					+ File.separator + "xsl" + File.separator + "main.xsl"));
+			clearDegraded("main.xsl");
+		} catch (Exception e) {
+			LOGGER.error(e.getLocalizedMessage(), e);
+			markDegraded("main.xsl", e.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * runs the registered warm-up tasks.
+	 */
+	private void warmUp() {
+		List<Runnable> tasks = new ArrayList<Runnable>(WARM_UP_TASKS);
+		if (tasks.isEmpty()) {
+			return;
+		}
+		this.phase.set(LifecyclePhase.WARMING_UP);
+		this.stepIndex = 0;
+		this.stepCount = tasks.size();
+		long start = System.currentTimeMillis();
+		for (Runnable task : tasks) {
+			beginStep(task.toString());
+			try {
+				task.run();
+			} catch (Exception e) {
+				LOGGER.error("Warm-up task failed: " + e.getLocalizedMessage(),
+						e);
+				markDegraded("warm-up", e.getLocalizedMessage());
+			}
+		}
+		LOGGER.info("Warm-up finished in {} ms.", System.currentTimeMillis()
+				- start);
+	}
+
+	/**
+	 * starts the given sub-system.
+	 * 
+	 * @param subsystem
+	 *            the sub-system
+	 */
+	private void startSubsystem(final Subsystem subsystem) {
+		switch (subsystem) {
+		case MAIL_QUEUE:
+			/* start the mail queue */
+			LifecycleMailQueueTasks.startMailQueue(this);
+			break;
+		case GEO_LOCATION_PROVIDER:
+			/* start the IP to country locator */
+			startGeoLocationProvider(this);
+			break;
+		case CAPTCHA_ADAPTER:
+			/* initialises the captcha-adapter */
+			initializeCaptchaAdapter(this);
+			break;
+		case FOP_FACTORY:
+			/* initialises the fop-factory-instance */
+			initializeFopFactoryInstance(this);
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown sub-system: "
+					+ subsystem);
+		}
+	}
+
+	/**
+	 * starts the given sub-system, if it is still pending.
+	 * 
+	 * @param subsystem
+	 *            the sub-system
+	 */
+	private void ensureStarted(final Subsystem subsystem) {
+		if (!this.pendingSubsystems.contains(subsystem)) {
+			return;
+		}
+		synchronized (this.pendingSubsystems) {
+			if (this.pendingSubsystems.contains(subsystem)) {
+				LOGGER.debug("Starting {} on demand.", subsystem);
+				startSubsystem(subsystem);
+				this.pendingSubsystems.remove(subsystem);
+			}
+		}
+	}
+
+	/**
+	 * creates the default random source.
+	 */
+	private void createRandom() {
+		try {
+			random = SecureRandom.getInstance("SHA1PRNG");
+			random.nextBytes(new byte[32]); // force internal seeding
+		} catch (NoSuchAlgorithmException e) {
+			LOGGER.warn(
+					"Not using SecureRandom 'SHA1PRNG', falling back to system default: {}",
+					e.getLocalizedMessage());
+			random = new SecureRandom();
+			random.setSeed(random.generateSeed(32));
+		}
+		lastRandomSeeding = System.currentTimeMillis();
+	}
+
+	/**
+	 * stops the LocalCache.
+	 */
+	private void stopLocalCache() {
+		LOGGER.trace("Stopping the local cache...");
+		if (PoorMansCache.getInstance() != null) {
+			((PoorMansCache) PoorMansCache.getInstance()).shutdown();
+		} else {
+			LOGGER.info("PoorMansCache was null.");
 		}
 		this.applicationLocales = null; // NOPMD by thomas on 29.02.08 21:31
 		LOGGER.info("Local cache stopped.");
@@ -951,21 +1387,16 @@ public final class Lifecycle {
 	 * 
 	 * @param lc
 	 *            the lifecycle
+	 * @param timeout
+	 *            the maximum time in milliseconds to wait for a running check
 	 */
-	private void stopWatchDog(final Lifecycle lc) {
+	private void stopWatchDog(final Lifecycle lc, final long timeout) {
 		if (lc.timer != null) {
 			LOGGER.trace("Stopping the WatchDog...");
 			lc.timer.cancel();
-			long start = System.currentTimeMillis();
-			/* wait up to 30 seconds for the WatchDog to finish */
-			while (lc.watchDog.isRunning()
-					&& (System.currentTimeMillis() - start < 30000)) {
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException e) {
-					LOGGER.trace("Error stopping the WatchDog: {}",
-							e.getLocalizedMessage());
-				}
+			/* wait for a running check to finish */
+			if (!lc.watchDog.awaitIdle(timeout)) {
+				LOGGER.warn("WatchDog still running after {} ms.", timeout);
 			}
 			lc.timer.purge();
 			LOGGER.info("WatchDog stopped.");
@@ -1014,6 +1445,7 @@ public final class Lifecycle {
 					.getJobletSchedulerConfiguration());
 		} catch (Exception exception) {
 			LOGGER.error("Cannot initialise the JobletScheduler: ", exception);
+			markDegraded("JobletScheduler", exception.getLocalizedMessage());
 		}
 	}
 
@@ -1033,11 +1465,15 @@ public final class Lifecycle {
 			lc.geoLocationProvider = locationProvider;
 			LOGGER.info("GeoLocationProvider [{}] started.", locationProvider
 					.getClass().getCanonicalName());
+			clearDegraded("GeoLocationProvider");
 		} catch (Exception e) {
 			LOGGER.error("Could not setup GeoLocationProvider, "
 					+ "using NoLookupLocationProvider instead: {}",
 					e.getLocalizedMessage());
 			this.geoLocationProvider = new NoLookupLocationProvider();
+			markDegraded("GeoLocationProvider",
+					"using NoLookupLocationProvider: "
+							+ e.getLocalizedMessage());
 		}
 	}
 
@@ -1048,31 +1484,10 @@ public final class Lifecycle {
 	 */
 	private List<File> indentifyComponents() {
 		LOGGER.trace("Identifying components...");
-
-		ArrayList<File> identifiedComponents = new ArrayList<File>();
-		File[] entries = new File(this.pulseRootDir, "WEB-INF" + File.separator
-				+ "components").listFiles();
-		if (entries == null) {
-			entries = new File[1];
-		}
-
-		/* search all subdirectories of the components directory */
-		for (File entry : entries) {
-			if (entry.isDirectory()) {
-				LOGGER.trace("Checking component '" + entry.getName()
-						+ "' in '" + entry.getAbsolutePath() + "'.");
-				if (new File(entry, "component.xml").exists()) {
-					identifiedComponents.add(entry);
-					LOGGER.debug("Found component '" + entry.getName()
-							+ "' in '" + entry.getAbsolutePath() + "'.");
-				} else {
-					LOGGER.warn("Missing 'component.xml' in '"
-							+ entry.getAbsolutePath()
-							+ "' -> Component will not be initialised.");
-				}
-
-			}
-		}
+		List<File> identifiedComponents = identifyDescriptorDirectories(
+				new File(this.pulseRootDir, "WEB-INF" + File.separator
+						+ "components"), "component.xml", "Component",
+				"Component will not be initialised.");
 
 		/* are there any components? */
 		if (identifiedComponents.isEmpty()) {
@@ -1083,30 +1498,91 @@ public final class Lifecycle {
 
 	/**
 	 * initialises the components of the container.
+	 * <p>
+	 * The {@code component.xml} descriptors are unmarshalled concurrently,
+	 * using one {@code Unmarshaller} per thread. Unchanged descriptors are
+	 * taken from the {@code LifecycleStartupCache}, which is neither read nor
+	 * written with the test configuration (unit tests, training and
+	 * benchmark runs), so that those always parse the descriptors.
+	 * </p>
 	 */
 	private void initialiseComponents() {
-		Set<Component> localComponents = new HashSet<Component>();
-		Unmarshaller unmarshaller;
-		try {
-			unmarshaller = this.jaxbContext.createUnmarshaller();
-		} catch (JAXBException e) {
-			throw new LifecycleException("Error initialising Unmarshaller: "
-					+ e.getLocalizedMessage(), e);
+		List<File> componentDirs = indentifyComponents();
+		if (componentDirs.isEmpty()) {
+			this.components.clear();
+			return;
 		}
 
-		for (File configFile : indentifyComponents()) {
-			try {
-				localComponents.add((Component) unmarshaller
-						.unmarshal(new File(configFile, "component.xml")));
-			} catch (JAXBException e) {
-				throw new LifecycleException("Error initialising component ["
-						+ configFile.getName() + "]: "
-						+ e.getLocalizedMessage(), e);
-			}
+		final LifecycleStartupCache cache;
+		if (isTestConfiguration()) {
+			cache = null;
+		} else {
+			cache = new LifecycleStartupCache(new File(this.pulseRootDir,
+					"WEB-INF" + File.separator + STARTUP_CACHE_FILE),
+					Component.class);
 		}
+		final JAXBContext context = this.jaxbContext;
+		final ThreadLocal<Unmarshaller> unmarshallers = new ThreadLocal<Unmarshaller>();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(
+				componentDirs.size(), Runtime.getRuntime()
+						.availableProcessors()));
+		try {
+			Map<File, Future<Component>> parsed = new LinkedHashMap<File, Future<Component>>();
+			for (final File configFile : componentDirs) {
+				parsed.put(configFile,
+						executor.submit(new Callable<Component>() {
+							public Component call() throws JAXBException {
+								File descriptor = new File(configFile,
+										"component.xml");
+								if (cache != null) {
+									Object cached = cache.get(descriptor);
+									if (cached instanceof Component) {
+										return (Component) cached;
+									}
+								}
+								Unmarshaller unmarshaller = unmarshallers.get();
+								if (unmarshaller == null) {
+									unmarshaller = context.createUnmarshaller();
+									unmarshallers.set(unmarshaller);
+								}
+								long start = System.nanoTime();
+								Component component = (Component) unmarshaller
+										.unmarshal(descriptor);
+								LOGGER.debug(
+										"Parsed component '{}' in {} \u00b5s.",
+										configFile.getName(),
+										(System.nanoTime() - start) / 1000);
+								if (cache != null) {
+									cache.put(descriptor, component);
+								}
+								return component;
+							}
+						}));
+			}
+
+			Set<Component> localComponents = new HashSet<Component>();
+			for (Map.Entry<File, Future<Component>> entry : parsed.entrySet()) {
+				try {
+					localComponents.add(entry.getValue().get());
+				} catch (ExecutionException e) {
+					throw new LifecycleException("Error initialising component ["
+							+ entry.getKey().getName() + "]: "
+							+ e.getCause().getLocalizedMessage(), e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new LifecycleException(
+							"Interrupted while initialising components.", e);
+				}
+			}
 
-		this.components.clear();
-		this.components.addAll(localComponents);
+			this.components.clear();
+			this.components.addAll(localComponents);
+			if (cache != null) {
+				cache.save();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
 	}
 
 	/**
@@ -1116,30 +1592,9 @@ public final class Lifecycle {
 	 */
 	private List<File> identifyBundles() {
 		LOGGER.trace("Identifying bundles...");
-
-		ArrayList<File> identifiedBundles = new ArrayList<File>();
-		File[] entries = this.bundlesRootDir.listFiles();
-		if (entries == null) {
-			entries = new File[1];
-		}
-
-		/* search all subdirectories of the bundle directory */
-		for (File entry : entries) {
-			if (entry.isDirectory()) {
-				LOGGER.trace("Checking bundle '" + entry.getName() + "' in '"
-						+ entry.getAbsolutePath() + "'.");
-				if (new File(entry, "bundle.xml").exists()) {
-					identifiedBundles.add(entry);
-					LOGGER.debug("Found bundle '" + entry.getName() + "' in '"
-							+ entry.getAbsolutePath() + "'.");
-				} else {
-					LOGGER.warn("Missing 'bundle.xml' in '"
-							+ entry.getAbsolutePath()
-							+ "' -> Bundle will not be loaded.");
-				}
-
-			}
-		}
+		List<File> identifiedBundles = identifyDescriptorDirectories(
+				this.bundlesRootDir, "bundle.xml", "Bundle",
+				"Bundle will not be loaded.");
 
 		/* are there any bundles? */
 		if (identifiedBundles.isEmpty()) {
@@ -1148,6 +1603,72 @@ public final class Lifecycle {
 		return identifiedBundles;
 	}
 
+	/**
+	 * identifies all sub-directories of the given root directory which contain
+	 * the given descriptor file.
+	 * <p>
+	 * The directory is streamed and the attributes of the descriptor are read
+	 * once per entry; the entry itself is only inspected, if the descriptor is
+	 * missing.
+	 * </p>
+	 * 
+	 * @param root
+	 *            the root directory
+	 * @param descriptor
+	 *            the name of the descriptor file
+	 * @param type
+	 *            the type of directory (for logging)
+	 * @param consequence
+	 *            the consequence of a missing descriptor (for logging)
+	 * @return the list of directories containing the descriptor
+	 */
+	private static List<File> identifyDescriptorDirectories(final File root,
+			final String descriptor, final String type,
+			final String consequence) {
+		List<File> identified = new ArrayList<File>();
+		if (!root.isDirectory()) {
+			return identified;
+		}
+		DirectoryStream<Path> stream = null;
+		try {
+			stream = Files.newDirectoryStream(root.toPath());
+			for (Path entry : stream) {
+				try {
+					if (Files.readAttributes(entry.resolve(descriptor),
+							BasicFileAttributes.class).isRegularFile()) {
+						identified.add(entry.toFile());
+						LOGGER.debug("Found " + type.toLowerCase() + " '"
+								+ entry.getFileName() + "' in '"
+								+ entry.toAbsolutePath() + "'.");
+					}
+				} catch (NoSuchFileException e) {
+					if (Files.isDirectory(entry)) {
+						LOGGER.warn("Missing '" + descriptor + "' in '"
+								+ entry.toAbsolutePath() + "' -> "
+								+ consequence);
+					}
+				} catch (IOException e) {
+					/* not a directory or not accessible */
+					LOGGER.trace("Skipping '{}': {}", entry,
+							e.getLocalizedMessage());
+				}
+			}
+		} catch (IOException e) {
+			LOGGER.error("Cannot list " + type.toLowerCase()
+					+ " directory '" + root.getAbsolutePath() + "': "
+					+ e.getLocalizedMessage());
+		} finally {
+			if (stream != null) {
+				try {
+					stream.close();
+				} catch (IOException e) {
+					LOGGER.trace(e.getLocalizedMessage());
+				}
+			}
+		}
+		return identified;
+	}
+
 	/**
 	 * initialises the {@code VirtualFileSystem}.
 	 */
@@ -1193,6 +1714,7 @@ public final class Lifecycle {
 		} catch (Exception e) {
 			LOGGER.error("Setting-up captcha-adapter has failed: {}",
 					e.getLocalizedMessage());
+			markDegraded("CaptchaAdapter", e.getLocalizedMessage());
 		}
 	}
 
@@ -1234,6 +1756,7 @@ public final class Lifecycle {
 			LOGGER.error(
 					"Initialising FopFactory has failed..."
 							+ e.getLocalizedMessage(), e);
+			markDegraded("FopFactory", e.getLocalizedMessage());
 		}
 	}
 
@@ -1244,6 +1767,336 @@ public final class Lifecycle {
 		return this.bundlesRootDir;
 	}
 
+	/**
+	 * the {@code LifecycleContext} backed by the fields of this
+	 * {@code Lifecycle}.
+	 */
+	private final class InstanceContext implements LifecycleContext {
+
+		/**
+		 * @return the root directory of the container
+		 * @see LifecycleContext#getBasePath()
+		 */
+		public File getBasePath() {
+			return pulseRootDir.getAbsoluteFile();
+		}
+
+		/**
+		 * @return the bundles of the container
+		 * @see LifecycleContext#getBundles()
+		 */
+		public Collection<Bundle> getBundles() {
+			return bundles.values();
+		}
+
+		/**
+		 * @param name
+		 *            the name of the bundle
+		 * @return the bundle
+		 * @see LifecycleContext#getBundle(String)
+		 */
+		public Bundle getBundle(final String name) {
+			Bundle b = bundles.get(name);
+			if (b != null) {
+				return b;
+			}
+			throw new BundleNotFoundException(name);
+		}
+
+		/**
+		 * @return the {@code HibernateDataSource}
+		 * @see LifecycleContext#getHibernateDataSource()
+		 */
+		public HibernateDataSource getHibernateDataSource() {
+			return hibernateDataSource;
+		}
+
+		/**
+		 * @return the JAXB context
+		 * @see LifecycleContext#getJAXBContext()
+		 */
+		public JAXBContext getJAXBContext() {
+			return jaxbContext;
+		}
+
+		/**
+		 * @return the JSON JAXB context
+		 * @see LifecycleContext#getJSONJAXBContext()
+		 */
+		public JSONJAXBContext getJSONJAXBContext() {
+			return jsonJaxbContext;
+		}
+
+		/**
+		 * @return the {@code MailQueue}
+		 * @see LifecycleContext#getMailQueue()
+		 */
+		public MailQueue getMailQueue() {
+			ensureStarted(Subsystem.MAIL_QUEUE);
+			return mailQueue;
+		}
+
+		/**
+		 * @return the {@code IGeoLocationProvider}
+		 * @see LifecycleContext#getGeoLocationProvider()
+		 */
+		public IGeoLocationProvider getGeoLocationProvider() {
+			ensureStarted(Subsystem.GEO_LOCATION_PROVIDER);
+			return geoLocationProvider;
+		}
+
+		/**
+		 * @return the {@code ICaptchaAdapter}
+		 * @see LifecycleContext#getCaptchaAdapter()
+		 */
+		public ICaptchaAdapter<?> getCaptchaAdapter() {
+			ensureStarted(Subsystem.CAPTCHA_ADAPTER);
+			return captchaAdapter;
+		}
+
+		/**
+		 * @return the {@code FopFactory}
+		 * @see LifecycleContext#getFopFactory()
+		 */
+		public FopFactory getFopFactory() {
+			ensureStarted(Subsystem.FOP_FACTORY);
+			return fopFactoryInstance;
+		}
+
+		/**
+		 * @return the known locales
+		 * @see LifecycleContext#getKnownLocales()
+		 */
+		public Collection<Locale> getKnownLocales() {
+			return convertLocaleList(applicationLocales, false);
+		}
+
+		/**
+		 * @return the active locales
+		 * @see LifecycleContext#getActiveLocales()
+		 */
+		public Collection<Locale> getActiveLocales() {
+			return convertLocaleList(applicationLocales, true);
+		}
+
+		/**
+		 * @return all locales known to the system
+		 * @see LifecycleContext#getSystemLocales()
+		 */
+		public Collection<Locale> getSystemLocales() {
+			// used for filtering
+			Map<String, Locale> systemLocales = new HashMap<String, Locale>();
+
+			// add all locales as provided by Locale itself
+			for (Locale locale : Locale.getAvailableLocales()) {
+				systemLocales.put(locale.toString(), locale);
+			}
+
+			// add application locales
+			for (Locale locale : convertLocaleList(Lifecycle.this.applicationLocales)) {
+				systemLocales.put(locale.toString(), locale);
+			}
+
+			// add system locales
+			for (Locale locale : convertLocaleList(Lifecycle.this.systemLocales)) {
+				systemLocales.put(locale.toString(), locale);
+			}
+
+			return systemLocales.values();
+		}
+
+		/**
+		 * @return {@code true}, if TLS is available
+		 * @see LifecycleContext#isTransportLayerSecurityAvailable()
+		 */
+		public boolean isTransportLayerSecurityAvailable() {
+			return getPulseConfiguration().isTransportLayerSecurityAvailable();
+		}
+
+		/**
+		 * @return the weakest security level to be honoured
+		 * @see LifecycleContext#getWeakestCommandSecurityLevel()
+		 */
+		public Security getWeakestCommandSecurityLevel() {
+			return getPulseConfiguration().getWeakestCommandSecurityLevel();
+		}
+
+		/**
+		 * @return the port for standard HTTP connections
+		 * @see LifecycleContext#getDefaultPort()
+		 */
+		public int getDefaultPort() {
+			return getPulseConfiguration().getDefaultPort();
+		}
+
+		/**
+		 * @return the port for secure (HTTPS) connections
+		 * @see LifecycleContext#getSecurePort()
+		 */
+		public int getSecurePort() {
+			return getPulseConfiguration().getSecurePort();
+		}
+
+		/**
+		 * @return the versioning prefix
+		 * @see LifecycleContext#getVersioningPrefix()
+		 */
+		public String getVersioningPrefix() {
+			return getPulseConfiguration().getVersioningPrefix();
+		}
+
+		/**
+		 * @return the random source
+		 * @see LifecycleContext#getSecureRandom()
+		 */
+		public SecureRandom getSecureRandom() {
+			return random;
+		}
+
+		/**
+		 * @param src
+		 *            the source byte array to be hashed
+		 * @return a salted SHA-512 hash of the given byte array
+		 * @throws NoSuchAlgorithmException
+		 *             if the SHA-512 hash algorithm is not available
+		 * @see LifecycleContext#getSaltedHash(byte[])
+		 */
+		public byte[] getSaltedHash(final byte[] src)
+				throws NoSuchAlgorithmException {
+			if (serverSalt.length == 0) {
+				return MessageDigest.getInstance("SHA-512").digest(src);
+			}
+			byte[] salted = new byte[src.length + serverSalt.length];
+			System.arraycopy(src, 0, salted, 0, src.length);
+			System.arraycopy(serverSalt, 0, salted, src.length,
+					serverSalt.length);
+			return MessageDigest.getInstance("SHA-512").digest(salted);
+		}
+	}
+
+	/**
+	 * the steps of the startup (see {@link Lifecycle#init()}), in the order
+	 * they are run.
+	 */
+	private enum InitStep {
+		/**
+		 * creating the random source.
+		 */
+		RANDOM_SOURCE("random source"),
+		/**
+		 * initialising the JAXBContext.
+		 */
+		JAXB_CONTEXT("JAXBContext"),
+		/**
+		 * creating the config pool.
+		 */
+		CONFIG_POOL("config pool"),
+		/**
+		 * initialising the JobletScheduler.
+		 */
+		JOBLET_SCHEDULER("JobletScheduler"),
+		/**
+		 * initialising the components.
+		 */
+		COMPONENTS("components"),
+		/**
+		 * identifying the bundles.
+		 */
+		BUNDLE_IDENTIFICATION("bundle identification"),
+		/**
+		 * initialising the bundles.
+		 */
+		BUNDLES("bundles"),
+		/**
+		 * re-initialising the JAXBContext with the bundles.
+		 */
+		BUNDLE_JAXB_CONTEXT("JAXBContext (bundles)"),
+		/**
+		 * initialising Hibernate.
+		 */
+		HIBERNATE("Hibernate"),
+		/**
+		 * initialising the registries.
+		 */
+		REGISTRIES("registries"),
+		/**
+		 * starting the warm-up of the search indexes.
+		 */
+		SEARCH_INDEXES("search indexes"),
+		/**
+		 * processing the controller annotations.
+		 */
+		CONTROLLER_ANNOTATIONS("controller annotations"),
+		/**
+		 * initialising users and groups.
+		 */
+		USERS_AND_GROUPS("users and groups"),
+		/**
+		 * reading the main XSL.
+		 */
+		MAIN_XSL("main XSL"),
+		/**
+		 * starting the sub-systems.
+		 */
+		SUBSYSTEMS("sub-systems"),
+		/**
+		 * initialising the VirtualFileSystem.
+		 */
+		VIRTUAL_FILE_SYSTEM("VirtualFileSystem"),
+		/**
+		 * starting the scheduler.
+		 */
+		SCHEDULER("scheduler");
+
+		/**
+		 * the name of the step.
+		 */
+		private final String label;
+
+		/**
+		 * creates a new step.
+		 * 
+		 * @param l
+		 *            the name of the step
+		 */
+		private InitStep(final String l) {
+			this.label = l;
+		}
+
+		/**
+		 * @return the name of the step
+		 * @see java.lang.Enum#toString()
+		 */
+		@Override
+		public String toString() {
+			return this.label;
+		}
+	}
+
+	/**
+	 * the sub-systems which can be started on demand.
+	 * 
+	 * @see StartupProfile#ON_DEMAND
+	 */
+	private enum Subsystem {
+		/**
+		 * the {@code MailQueue}.
+		 */
+		MAIL_QUEUE,
+		/**
+		 * the {@code IGeoLocationProvider}.
+		 */
+		GEO_LOCATION_PROVIDER,
+		/**
+		 * the {@code ICaptchaAdapter}.
+		 */
+		CAPTCHA_ADAPTER,
+		/**
+		 * the {@code FopFactory}.
+		 */
+		FOP_FACTORY
+	}
+
 	/**
 	 * a timer task used to check for changed resources.
 	 */
@@ -1258,7 +2111,13 @@ public final class Lifecycle {
 		/**
 		 * flag, indicating whether the task is running.
 		 */
-		private AtomicBoolean running = new AtomicBoolean(false);
+		private final AtomicBoolean running = new AtomicBoolean(false);
+
+		/**
+		 * flag, indicating whether the current run has switched the phase to
+		 * {@code RELOADING}.
+		 */
+		private boolean reloading;
 
 		/**
 		 * checks for modified resources.
@@ -1283,15 +2142,17 @@ public final class Lifecycle {
 				 * process annotations
 				 */
 				if (cacheChanges || bundleChanges) {
+					beginReloading();
 					LifecycleJAXBTasks.initialiseJAXBContext(lifecycleInstance);
 					LifecycleBundleTasks
 							.processControllerAnnotations(lifecycleInstance);
 				}
 
 				/* check IP to country locator */
-				if (geoLocationProvider.isModified()) {
+				if (geoLocationProvider != null
+						&& geoLocationProvider.isModified()) {
 					LOGGER.info("restarting GeoLocationProvider.");
-					geoLocationProvider.restart();
+					restartGeoLocationProvider();
 				}
 
 				/* re-seed random, if necessary */
@@ -1303,7 +2164,15 @@ public final class Lifecycle {
 				}
 
 			} finally {
-				this.running.compareAndSet(true, false);
+				/* a shut down's STOPPING is kept */
+				if (this.reloading) {
+					Lifecycle.this.phase.endReloading();
+					this.reloading = false;
+				}
+				synchronized (this.running) {
+					this.running.compareAndSet(true, false);
+					this.running.notifyAll();
+				}
 				NDC.pop();
 				NDC.remove();
 			}
@@ -1320,6 +2189,58 @@ public final class Lifecycle {
 			return this.running.get();
 		}
 
+		/**
+		 * waits until the {@code WatchDog} is not running any more.
+		 * 
+		 * @param timeout
+		 *            the maximum time to wait in milliseconds
+		 * @return {@code true}, if the {@code WatchDog} is not running
+		 */
+		public final boolean awaitIdle(final long timeout) {
+			long end = System.currentTimeMillis() + timeout;
+			synchronized (this.running) {
+				long left = timeout;
+				while (this.running.get() && left > 0) {
+					try {
+						this.running.wait(left);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+					left = end - System.currentTimeMillis();
+				}
+				return !this.running.get();
+			}
+		}
+
+		/**
+		 * switches the phase from {@code READY} to {@code RELOADING}, before
+		 * the first reload work of the current run is done. The phase is
+		 * switched back at the end of the run, unless it has been changed in
+		 * the meantime.
+		 */
+		private void beginReloading() {
+			if (!this.reloading) {
+				this.reloading = Lifecycle.this.phase.beginReloading();
+			}
+		}
+
+		/**
+		 * restarts the {@code IGeoLocationProvider}. If the configured
+		 * provider could not be started before, it is started again instead
+		 * of the {@code NoLookupLocationProvider} used in its place.
+		 */
+		private void restartGeoLocationProvider() {
+			beginReloading();
+			if (geoLocationProvider instanceof NoLookupLocationProvider
+					&& degradedSubsystems.containsKey("GeoLocationProvider")) {
+				startGeoLocationProvider(Lifecycle.this);
+			} else {
+				geoLocationProvider.restart();
+				clearDegraded("GeoLocationProvider");
+			}
+		}
+
 		/**
 		 * checks the config pool for changes.
 		 * 
@@ -1329,12 +2250,19 @@ public final class Lifecycle {
 		 */
 		private boolean checkLocalCache(final PoorMansCache pool) {
 			if (pool.isModified()) {
+				beginReloading();
 				pool.restart();
 				LOGGER.info("WatchDog: Config pool reloaded.");
+				/* retry a main XSL which could not be read */
+				if (degradedSubsystems.containsKey("main.xsl")) {
+					loadMainXSL();
+				}
 				/* reconfigure MailQueue */
 				reconfigureMailQueue();
 				/* reload IP2CountryLocator, if necessary */
-				geoLocationProvider.restart();
+				if (geoLocationProvider != null) {
+					restartGeoLocationProvider();
+				}
 				return true;
 			}
 			return false;
@@ -1383,6 +2311,7 @@ public final class Lifecycle {
 			boolean changed = false;
 			for (File f : newBundles) {
 				if ((f.isDirectory()) && (new File(f, "bundle.xml").exists())) {
+					beginReloading();
 					try {
 						Bundle bundle = LifecycleBundleTasks.initBundle(f,
 								lifecycleInstance);
@@ -1415,9 +2344,11 @@ public final class Lifecycle {
 			for (Bundle bundle : getBundles()) {
 				if (!bundle.getDirectory().exists()) {
 					/* bundle does not exist anymore */
+					beginReloading();
 					PoorMansCache.flushBundle(bundle);
 					changed = true;
 				} else if (bundle.isModified()) {
+					beginReloading();
 					PoorMansCache.flushBundle(bundle);
 					/* bundle has been modified */
 					initializedBundles.remove(bundle.getDirectory());
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.invocation.lifecycle;
+
+import java.io.File;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.Locale;
+
+import javax.xml.bind.JAXBContext;
+
+import org.apache.fop.apps.FopFactory;
+import org.torweg.pulse.annotations.Action.Security;
+import org.torweg.pulse.bundle.Bundle;
+import org.torweg.pulse.email.MailQueue;
+import org.torweg.pulse.util.HibernateDataSource;
+import org.torweg.pulse.util.captcha.ICaptchaAdapter;
+import org.torweg.pulse.util.geolocation.IGeoLocationProvider;
+
+import com.sun.jersey.api.json.JSONJAXBContext;
+
+/**
+ * the per-instance view of a started <em>pulse</em> container.
+ * <p>
+ * A {@code LifecycleContext} holds the resources of one container: its
+ * bundles, data source, JAXB contexts, sub-systems, locales and security
+ * settings. The static getters of the {@code Lifecycle} are a facade over the
+ * context returned by {@link Lifecycle#getDefaultContext()}. Code which is
+ * handed a context should use it instead of the static getters.
+ * </p>
+ * <p>
+ * The random source is shared by all contexts of a JVM.
+ * </p>
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ */
+public interface LifecycleContext {
+
+	/**
+	 * @return the root directory of the container
+	 */
+	File getBasePath();
+
+	/**
+	 * @return the bundles of the container
+	 */
+	Collection<Bundle> getBundles();
+
+	/**
+	 * returns the bundle with the given name.
+	 *
+	 * @param name
+	 *            the name of the bundle
+	 * @return the bundle
+	 * @throws BundleNotFoundException
+	 *             if the named bundle cannot be found
+	 */
+	Bundle getBundle(String name);
+
+	/**
+	 * @return the {@code HibernateDataSource}
+	 */
+	HibernateDataSource getHibernateDataSource();
+
+	/**
+	 * @return the JAXB context
+	 */
+	JAXBContext getJAXBContext();
+
+	/**
+	 * @return the JSON JAXB context
+	 */
+	JSONJAXBContext getJSONJAXBContext();
+
+	/**
+	 * @return the {@code MailQueue}
+	 */
+	MailQueue getMailQueue();
+
+	/**
+	 * @return the {@code IGeoLocationProvider}
+	 */
+	IGeoLocationProvider getGeoLocationProvider();
+
+	/**
+	 * @return the (configured) {@code ICaptchaAdapter}
+	 */
+	ICaptchaAdapter<?> getCaptchaAdapter();
+
+	/**
+	 * @return the (configured) {@code FopFactory}
+	 */
+	FopFactory getFopFactory();
+
+	/**
+	 * @return all known {@code ApplicationLocale}s as {@code Locale}s
+	 */
+	Collection<Locale> getKnownLocales();
+
+	/**
+	 * @return all active {@code ApplicationLocale}s as {@code Locale}s
+	 */
+	Collection<Locale> getActiveLocales();
+
+	/**
+	 * @return all {@code Locale}s known to the system, i.e. the available
+	 *         {@code Locale}s, the {@code ApplicationLocale}s and the
+	 *         {@code SystemLocale}s, each combination occurring once
+	 */
+	Collection<Locale> getSystemLocales();
+
+	/**
+	 * @return {@code true}, if the container is configured to use TLS
+	 */
+	boolean isTransportLayerSecurityAvailable();
+
+	/**
+	 * @return the weakest security level to be honoured, if TLS is available
+	 */
+	Security getWeakestCommandSecurityLevel();
+
+	/**
+	 * @return the port to be used for standard HTTP connections
+	 */
+	int getDefaultPort();
+
+	/**
+	 * @return the port to be used for secure (HTTPS) connections
+	 */
+	int getSecurePort();
+
+	/**
+	 * @return the versioning prefix
+	 */
+	String getVersioningPrefix();
+
+	/**
+	 * @return the seeded random source
+	 */
+	SecureRandom getSecureRandom();
+
+	/**
+	 * creates a hash of the given byte array, salted with the server salt of
+	 * the container.
+	 *
+	 * @param src
+	 *            the source byte array to be hashed
+	 * @return a salted SHA-512 hash of the given byte array
+	 * @throws NoSuchAlgorithmException
+	 *             if the SHA-512 hash algorithm is not available
+	 */
+	byte[] getSaltedHash(byte[] src) throws NoSuchAlgorithmException;
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.invocation.lifecycle;
+
+/**
+ * the phases of the {@code Lifecycle}.
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ * @see LifecycleStatus
+ */
+public enum LifecyclePhase {
+
+	/**
+	 * the {@code Lifecycle} has not been started.
+	 */
+	STOPPED,
+
+	/**
+	 * the {@code Lifecycle} is starting up.
+	 */
+	STARTING,
+
+	/**
+	 * the registered warm-up tasks are running.
+	 */
+	WARMING_UP,
+
+	/**
+	 * the {@code Lifecycle} is ready to serve requests.
+	 */
+	READY,
+
+	/**
+	 * the WatchDog is reloading changed resources.
+	 */
+	RELOADING,
+
+	/**
+	 * the {@code Lifecycle} is shutting down.
+	 */
+	STOPPING;
+
+}
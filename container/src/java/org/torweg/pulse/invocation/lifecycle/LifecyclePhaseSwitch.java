@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.invocation.lifecycle;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * holds the current {@code LifecyclePhase} of the {@code Lifecycle}.
+ * <p>
+ * The {@code WatchDog} switches between {@code READY} and {@code RELOADING}
+ * only by comparing and setting the phase atomically. Thus a phase set in
+ * the meantime, e.g. {@code STOPPING} by a shut down overlapping a reload, is
+ * never overwritten by the end of the reload.
+ * </p>
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ */
+final class LifecyclePhaseSwitch {
+
+	/**
+	 * the current phase.
+	 */
+	private final AtomicReference<LifecyclePhase> phase;
+
+	/**
+	 * creates a new switch in the given phase.
+	 *
+	 * @param initial
+	 *            the initial phase
+	 */
+	protected LifecyclePhaseSwitch(final LifecyclePhase initial) {
+		this.phase = new AtomicReference<LifecyclePhase>(initial);
+	}
+
+	/**
+	 * @return the current phase
+	 */
+	protected LifecyclePhase get() {
+		return this.phase.get();
+	}
+
+	/**
+	 * sets the phase unconditionally.
+	 *
+	 * @param next
+	 *            the new phase
+	 */
+	protected void set(final LifecyclePhase next) {
+		this.phase.set(next);
+	}
+
+	/**
+	 * switches the phase from {@code READY} to {@code RELOADING}.
+	 *
+	 * @return {@code true}, if the phase has been switched. Otherwise
+	 *         {@code false}, i.e. the phase was not {@code READY}.
+	 */
+	protected boolean beginReloading() {
+		return this.phase.compareAndSet(LifecyclePhase.READY,
+				LifecyclePhase.RELOADING);
+	}
+
+	/**
+	 * switches the phase back from {@code RELOADING} to {@code READY}. The
+	 * phase is left unchanged, if it has been changed since
+	 * {@link #beginReloading()}, e.g. to {@code STOPPING}.
+	 *
+	 * @return {@code true}, if the phase has been switched back. Otherwise
+	 *         {@code false}.
+	 */
+	protected boolean endReloading() {
+		return this.phase.compareAndSet(LifecyclePhase.RELOADING,
+				LifecyclePhase.READY);
+	}
+
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.invocation.lifecycle;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * tasks for the {@code Lifecycle} concerning the Hibernate Search indexes.
+ * <p>
+ * The directory providers and index base directories are read from the
+ * {@code session-factory} properties of the configuration file. Indexes kept
+ * on the file system (the directory provider {@code filesystem}, optionally
+ * with the {@code mmap} access type) are read once in a background thread
+ * after startup, so that the first searches do not have to fetch the index
+ * from disk. The startup does not wait for the warm-up, which stops, once the
+ * {@code Lifecycle} is shut down. As with Hibernate Search, an index base
+ * defaults to {@code "."} and relative index bases are resolved against the
+ * working directory of the JVM.
+ * </p>
+ * <p>
+ * In-heap ({@code ram}) indexes start empty and are not rebuilt from the
+ * database. They are only suitable for fresh test databases, so a warning is
+ * logged, if they are used with any other configuration.
+ * </p>
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ */
+final class LifecycleSearchTasks {
+
+	/**
+	 * the logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(LifecycleSearchTasks.class);
+
+	/**
+	 * the prefix of the Hibernate Search properties.
+	 */
+	private static final String SEARCH_PREFIX = "hibernate.search.";
+
+	/**
+	 * the suffix of the directory provider properties.
+	 */
+	private static final String DIRECTORY_PROVIDER = ".directory_provider";
+
+	/**
+	 * the suffix of the index base properties.
+	 */
+	private static final String INDEX_BASE = ".indexBase";
+
+	/**
+	 * the name of the default index.
+	 */
+	private static final String DEFAULT_INDEX = "default";
+
+	/**
+	 * the short name of the in-heap directory provider.
+	 */
+	private static final String RAM = "ram";
+
+	/**
+	 * the size of the read buffer used for warming up.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * hidden constructor.
+	 */
+	private LifecycleSearchTasks() {
+		super();
+	}
+
+	/**
+	 * starts reading all file system based search indexes once to warm the
+	 * page cache.
+	 * <p>
+	 * The indexes are read by a daemon thread, which stops reading, when it
+	 * is interrupted.
+	 * </p>
+	 *
+	 * @param lc
+	 *            the {@code Lifecycle}
+	 * @return the thread warming up the indexes, or {@code null}, if there
+	 *         are no file system based indexes
+	 */
+	protected static Thread warmUpSearchIndexes(final Lifecycle lc) {
+		Map<String, String> properties = readSessionFactoryProperties(lc
+				.getConfigurationFileDirectly());
+		if (!lc.isTestConfiguration()) {
+			for (String index : getIndexes(properties)) {
+				if (RAM.equals(getIndexProperty(properties, index,
+						DIRECTORY_PROVIDER, ""))) {
+					LOGGER.warn("The search index '{}' is kept in heap and "
+							+ "starts empty, it is not rebuilt from the "
+							+ "database.", index);
+				}
+			}
+		}
+		final Set<File> indexBases = getFileSystemIndexBases(properties);
+		if (indexBases.isEmpty()) {
+			LOGGER.debug("No file system search indexes configured.");
+			return null;
+		}
+		Thread thread = new Thread(new Runnable() {
+			public void run() {
+				warmUp(indexBases);
+			}
+		}, "Lifecycle.search-warm-up");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * reads the given index base directories.
+	 *
+	 * @param indexBases
+	 *            the index base directories
+	 */
+	private static void warmUp(final Set<File> indexBases) {
+		long start = System.currentTimeMillis();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		long bytes = 0;
+		for (File indexBase : indexBases) {
+			if (indexBase.isDirectory()) {
+				bytes += warmUp(indexBase, buffer);
+			} else {
+				LOGGER.debug("No file system search indexes found in '{}'.",
+						indexBase.getAbsolutePath());
+			}
+		}
+		if (Thread.currentThread().isInterrupted()) {
+			LOGGER.info("Search index warm-up stopped after {} bytes.", bytes);
+		} else {
+			LOGGER.info("Warmed up search indexes ({} bytes) in {} ms.",
+					bytes, System.currentTimeMillis() - start);
+		}
+	}
+
+	/**
+	 * determines the index base directories of all indexes kept on the file
+	 * system.
+	 *
+	 * @param properties
+	 *            the {@code session-factory} properties
+	 * @return the absolute index base directories
+	 */
+	protected static Set<File> getFileSystemIndexBases(
+			final Map<String, String> properties) {
+		Set<File> indexBases = new LinkedHashSet<File>();
+		for (String index : getIndexes(properties)) {
+			String provider = getIndexProperty(properties, index,
+					DIRECTORY_PROVIDER, "filesystem");
+			if (!isFileSystemProvider(provider)) {
+				LOGGER.debug("Skipping warm-up of index '{}' ({}).", index,
+						provider);
+				continue;
+			}
+			String indexBase = getIndexProperty(properties, index, INDEX_BASE,
+					".");
+			/* relative to the working directory, as in Hibernate Search */
+			indexBases.add(new File(indexBase).getAbsoluteFile());
+		}
+		return indexBases;
+	}
+
+	/**
+	 * determines the names of the default index and of every index with
+	 * settings of its own.
+	 *
+	 * @param properties
+	 *            the {@code session-factory} properties
+	 * @return the names of the indexes
+	 */
+	private static Set<String> getIndexes(final Map<String, String> properties) {
+		Set<String> indexes = new LinkedHashSet<String>();
+		indexes.add(DEFAULT_INDEX);
+		for (String key : properties.keySet()) {
+			if (key.startsWith(SEARCH_PREFIX)
+					&& (key.endsWith(DIRECTORY_PROVIDER) || key
+							.endsWith(INDEX_BASE))) {
+				String index = key.substring(SEARCH_PREFIX.length(),
+						key.lastIndexOf('.'));
+				if (index.length() > 0) {
+					indexes.add(index);
+				}
+			}
+		}
+		return indexes;
+	}
+
+	/**
+	 * returns the setting of the given index, falling back to the default
+	 * index and then to the given default value.
+	 *
+	 * @param properties
+	 *            the {@code session-factory} properties
+	 * @param index
+	 *            the name of the index
+	 * @param suffix
+	 *            the suffix of the property
+	 * @param defaultValue
+	 *            the default value
+	 * @return the setting
+	 */
+	private static String getIndexProperty(
+			final Map<String, String> properties, final String index,
+			final String suffix, final String defaultValue) {
+		String value = properties.get(SEARCH_PREFIX + index + suffix);
+		if (value == null) {
+			value = properties.get(SEARCH_PREFIX + DEFAULT_INDEX + suffix);
+		}
+		if (value == null) {
+			return defaultValue;
+		}
+		return value;
+	}
+
+	/**
+	 * checks, whether the given directory provider keeps the index on the
+	 * file system.
+	 *
+	 * @param provider
+	 *            the short name or the class name of the directory provider
+	 * @return {@code true}, if the index is kept on the file system
+	 */
+	private static boolean isFileSystemProvider(final String provider) {
+		return provider.startsWith("filesystem")
+				|| provider.matches(".*\\.FS\\w*DirectoryProvider");
+	}
+
+	/**
+	 * reads the {@code session-factory} properties from the given
+	 * configuration file.
+	 * <p>
+	 * As with Hibernate, property names are prefixed with {@code hibernate.},
+	 * if they do not start with it already.
+	 * </p>
+	 *
+	 * @param configuration
+	 *            the configuration file
+	 * @return the properties, empty on errors
+	 */
+	protected static Map<String, String> readSessionFactoryProperties(
+			final File configuration) {
+		Map<String, String> properties = new HashMap<String, String>();
+		Document document;
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory
+					.newInstance();
+			factory.setValidating(false);
+			DocumentBuilder builder = factory.newDocumentBuilder();
+			/* the configuration's external entities are not needed here */
+			builder.setEntityResolver(new EntityResolver() {
+				public InputSource resolveEntity(final String publicId,
+						final String systemId) {
+					return new InputSource(new StringReader(""));
+				}
+			});
+			document = builder.parse(configuration);
+		} catch (ParserConfigurationException e) {
+			LOGGER.warn("Cannot read the search settings: {}",
+					e.getLocalizedMessage());
+			return properties;
+		} catch (SAXException e) {
+			LOGGER.warn("Cannot read the search settings: {}",
+					e.getLocalizedMessage());
+			return properties;
+		} catch (IOException e) {
+			LOGGER.warn("Cannot read the search settings: {}",
+					e.getLocalizedMessage());
+			return properties;
+		}
+		NodeList factories = document.getElementsByTagName("session-factory");
+		for (int i = 0; i < factories.getLength(); i++) {
+			NodeList nodes = ((Element) factories.item(i))
+					.getElementsByTagName("property");
+			for (int j = 0; j < nodes.getLength(); j++) {
+				Element property = (Element) nodes.item(j);
+				String name = property.getAttribute("name").trim();
+				if (!name.startsWith("hibernate.")) {
+					name = "hibernate." + name;
+				}
+				properties.put(name, property.getTextContent().trim());
+			}
+		}
+		return properties;
+	}
+
+	/**
+	 * recursively reads all files below the given directory, until the
+	 * current thread is interrupted.
+	 *
+	 * @param dir
+	 *            the directory
+	 * @param buffer
+	 *            the read buffer
+	 * @return the number of bytes read
+	 */
+	private static long warmUp(final File dir, final byte[] buffer) {
+		File[] entries = dir.listFiles();
+		if (entries == null) {
+			return 0;
+		}
+		long bytes = 0;
+		for (File entry : entries) {
+			if (Thread.currentThread().isInterrupted()) {
+				break;
+			}
+			if (entry.isDirectory()) {
+				bytes += warmUp(entry, buffer);
+			} else {
+				bytes += readFully(entry, buffer);
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * reads the given file and discards its contents.
+	 *
+	 * @param file
+	 *            the file
+	 * @param buffer
+	 *            the read buffer
+	 * @return the number of bytes read
+	 */
+	private static long readFully(final File file, final byte[] buffer) {
+		long bytes = 0;
+		InputStream in = null;
+		try {
+			in = new FileInputStream(file);
+			int read;
+			while (!Thread.currentThread().isInterrupted()
+					&& (read = in.read(buffer)) != -1) {
+				bytes += read;
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Cannot warm up index file '{}': {}",
+					file.getAbsolutePath(), e.getLocalizedMessage());
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException e) {
+					LOGGER.trace(e.getLocalizedMessage());
+				}
+			}
+		}
+		return bytes;
+	}
+
+}
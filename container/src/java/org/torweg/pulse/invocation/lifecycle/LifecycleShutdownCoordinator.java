@@ -0,0 +1,276 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.invocation.lifecycle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * runs the shut down steps of the {@code Lifecycle} within a global deadline.
+ * <p>
+ * Steps are run either one after another or, if they are independent of each
+ * other, concurrently. Every step is waited for at most its own time budget,
+ * which is cut to the time left until the deadline. Thus a stuck step only
+ * uses up its share of the deadline and the following steps still get
+ * theirs. Steps still running, when their budget is used up, are left to
+ * finish in the background (on daemon threads) and are reported by
+ * {@link #report()}.
+ * </p>
+ * <p>
+ * A step names the steps it depends on. It is skipped, if any of them has
+ * been skipped or is still running, instead of being run while the step it
+ * depends on is still working. A step failing with an exception is logged
+ * and does not stop the following steps.
+ * </p>
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ */
+final class LifecycleShutdownCoordinator {
+
+	/**
+	 * the logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(LifecycleShutdownCoordinator.class);
+
+	/**
+	 * the deadline in milliseconds since the epoch.
+	 */
+	private final long deadline;
+
+	/**
+	 * the executor running the steps.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * the steps which have not finished in time by name.
+	 */
+	private final Map<String, Future<?>> unfinished = Collections
+			.synchronizedMap(new LinkedHashMap<String, Future<?>>());
+
+	/**
+	 * the names of the steps which have been skipped.
+	 */
+	private final List<String> skipped = Collections
+			.synchronizedList(new ArrayList<String>());
+
+	/**
+	 * creates a new coordinator.
+	 *
+	 * @param timeout
+	 *            the time in milliseconds the whole shut down may take
+	 */
+	protected LifecycleShutdownCoordinator(final long timeout) {
+		this.deadline = System.currentTimeMillis() + timeout;
+		this.executor = Executors.newCachedThreadPool(new ThreadFactory() {
+			private final AtomicInteger counter = new AtomicInteger();
+
+			public Thread newThread(final Runnable r) {
+				Thread thread = new Thread(r, "Lifecycle.shutdown-"
+						+ this.counter.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * @return the time left until the deadline in milliseconds
+	 */
+	protected long remaining() {
+		return Math.max(0, this.deadline - System.currentTimeMillis());
+	}
+
+	/**
+	 * runs the given step and waits for it at most the given time.
+	 *
+	 * @param name
+	 *            the name of the step
+	 * @param budget
+	 *            the maximum time to wait for the step in milliseconds
+	 * @param step
+	 *            the step
+	 * @param dependsOn
+	 *            the names of the steps the step depends on
+	 * @return {@code true}, if the step has finished, {@code false}, if it
+	 *         has been skipped or is still running
+	 */
+	protected boolean run(final String name, final long budget,
+			final Runnable step, final String... dependsOn) {
+		Map<String, Runnable> steps = new LinkedHashMap<String, Runnable>();
+		steps.put(name, step);
+		return runConcurrently(steps, budget, dependsOn);
+	}
+
+	/**
+	 * runs the given independent steps concurrently and waits for them at
+	 * most the given time.
+	 *
+	 * @param steps
+	 *            the steps by name
+	 * @param budget
+	 *            the maximum time to wait for the steps in milliseconds
+	 * @param dependsOn
+	 *            the names of the steps all given steps depend on
+	 * @return {@code true}, if all steps have finished, {@code false}, if
+	 *         they have been skipped or any of them is still running
+	 */
+	protected boolean runConcurrently(final Map<String, Runnable> steps,
+			final long budget, final String... dependsOn) {
+		List<String> unavailable = new ArrayList<String>();
+		for (String dependency : dependsOn) {
+			if (isSkipped(dependency) || isStillRunning(dependency)) {
+				unavailable.add(dependency);
+			}
+		}
+		if (!unavailable.isEmpty()) {
+			LOGGER.warn("Skipping shut down of {}, depending on {}.",
+					steps.keySet(), unavailable);
+			this.skipped.addAll(steps.keySet());
+			return false;
+		}
+		long stepDeadline = System.currentTimeMillis()
+				+ Math.min(budget, remaining());
+		Map<String, Future<?>> futures = new LinkedHashMap<String, Future<?>>();
+		for (Map.Entry<String, Runnable> step : steps.entrySet()) {
+			LOGGER.trace("Shut down: {}", step.getKey());
+			futures.put(step.getKey(), this.executor.submit(step.getValue()));
+		}
+		boolean finished = true;
+		for (Map.Entry<String, Future<?>> future : futures.entrySet()) {
+			try {
+				future.getValue().get(
+						Math.max(0, stepDeadline - System.currentTimeMillis()),
+						TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				LOGGER.warn("Shut down of {} has not finished in time.",
+						future.getKey());
+				this.unfinished.put(future.getKey(), future.getValue());
+				finished = false;
+			} catch (ExecutionException e) {
+				LOGGER.error("Error during shut down of " + future.getKey()
+						+ ": " + e.getCause().getLocalizedMessage(),
+						e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				this.unfinished.put(future.getKey(), future.getValue());
+				finished = false;
+			}
+		}
+		return finished;
+	}
+
+	/**
+	 * logs the steps which have not finished in time and the steps which
+	 * have been skipped and releases the executor.
+	 *
+	 * @return the names of the steps which have not finished in time
+	 */
+	protected List<String> report() {
+		this.executor.shutdown();
+		List<String> result;
+		synchronized (this.unfinished) {
+			result = new ArrayList<String>(this.unfinished.keySet());
+		}
+		if (!result.isEmpty() || !this.skipped.isEmpty()) {
+			LOGGER.warn("Shut down incomplete, not finished in time: {}, "
+					+ "skipped: {}", result, getSkipped());
+		}
+		return result;
+	}
+
+	/**
+	 * @return the names of the steps which have been skipped
+	 */
+	protected List<String> getSkipped() {
+		synchronized (this.skipped) {
+			return new ArrayList<String>(this.skipped);
+		}
+	}
+
+	/**
+	 * @param name
+	 *            the name of a step
+	 * @return {@code true}, if the step has been skipped
+	 */
+	private boolean isSkipped(final String name) {
+		return this.skipped.contains(name);
+	}
+
+	/**
+	 * @param name
+	 *            the name of a step
+	 * @return {@code true}, if the step has not finished in time and is still
+	 *         running in the background
+	 */
+	private boolean isStillRunning(final String name) {
+		Future<?> future = this.unfinished.get(name);
+		return future != null && !future.isDone();
+	}
+
+	/**
+	 * @return the names of the steps which have not finished in time and are
+	 *         still running in the background
+	 */
+	protected List<String> getStillRunning() {
+		List<String> running = new ArrayList<String>();
+		synchronized (this.unfinished) {
+			for (Map.Entry<String, Future<?>> step : this.unfinished
+					.entrySet()) {
+				if (!step.getValue().isDone()) {
+					running.add(step.getKey());
+				}
+			}
+		}
+		return running;
+	}
+
+	/**
+	 * waits for the steps still running in the background to finish, once
+	 * the shut down has been reported.
+	 *
+	 * @param timeout
+	 *            the maximum time to wait in milliseconds
+	 * @return {@code true}, if no step is running any more
+	 */
+	protected boolean awaitStillRunning(final long timeout) {
+		try {
+			this.executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return getStillRunning().isEmpty();
+	}
+
+}
@@ -0,0 +1,568 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.invocation.lifecycle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * a persistent cache of parsed descriptor files (e.g. {@code component.xml}),
+ * stored below {@code WEB-INF}.
+ * <p>
+ * An entry is valid, if the size and the last modification time of the
+ * descriptor are unchanged. If only the modification time differs, the
+ * content hash decides. The cache file is bound to a fingerprint of the
+ * cached type's class path entry (its location, size and modification time,
+ * the implementation version and the class path of the JVM). If the
+ * fingerprint differs or the file cannot be read, the cache is discarded as
+ * a whole. Entries of descriptors which have not been looked up since the
+ * cache has been loaded (e.g. of removed or renamed components) are dropped
+ * when the cache is saved.
+ * </p>
+ * <p>
+ * A cache hit returns a deserialised copy instead of a freshly unmarshalled
+ * descriptor. Hence only descriptors are cached whose whole object graph
+ * consists of {@code Serializable} objects without {@code transient} fields
+ * and without the JAXB callbacks {@code beforeUnmarshal} and
+ * {@code afterUnmarshal}, i.e. whose state is fully restored by
+ * deserialisation. Reading the cache file is restricted to the classes of
+ * the {@code java.lang}, {@code java.util} and {@code org.torweg.pulse}
+ * packages and {@code java.io.File}.
+ * </p>
+ * <p>
+ * Only the component descriptors ({@code component.xml}) are cached. The
+ * bundle descriptors ({@code bundle.xml}) and the controller annotations,
+ * which take most of the startup time, are processed by
+ * {@code LifecycleBundleTasks} and are not cached, i.e. a restart only saves
+ * parsing the component descriptors.
+ * </p>
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ */
+final class LifecycleStartupCache {
+
+	/**
+	 * the logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(LifecycleStartupCache.class);
+
+	/**
+	 * the classes (or packages, if ending with a dot) which may be read from
+	 * the cache file.
+	 */
+	private static final String[] ALLOWED_CLASSES = { "java.lang.",
+			"java.util.", "java.io.File", "org.torweg.pulse." };
+
+	/**
+	 * the cache file.
+	 */
+	private final File cacheFile;
+
+	/**
+	 * the fingerprint of the class path of the cached type.
+	 */
+	private final String fingerprint;
+
+	/**
+	 * the entries by absolute path of the descriptor.
+	 */
+	private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+	/**
+	 * the absolute paths of the descriptors looked up since loading.
+	 */
+	private final Set<String> used = Collections
+			.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	/**
+	 * flag, indicating whether the cache has been modified since loading.
+	 */
+	private final AtomicBoolean modified = new AtomicBoolean(false);
+
+	/**
+	 * creates the cache and loads the given cache file, if it exists and
+	 * matches the class path of the given type.
+	 *
+	 * @param file
+	 *            the cache file
+	 * @param type
+	 *            the type of the cached descriptors
+	 */
+	protected LifecycleStartupCache(final File file, final Class<?> type) {
+		this.cacheFile = file;
+		this.fingerprint = fingerprint(type);
+		load();
+	}
+
+	/**
+	 * returns the cached descriptor for the given file, if still valid.
+	 *
+	 * @param descriptor
+	 *            the descriptor file
+	 * @return the cached descriptor, or {@code null}
+	 */
+	protected Object get(final File descriptor) {
+		this.used.add(descriptor.getAbsolutePath());
+		Entry entry = this.entries.get(descriptor.getAbsolutePath());
+		if (entry == null || entry.size != descriptor.length()) {
+			return null;
+		}
+		long lastModified = descriptor.lastModified();
+		if (entry.lastModified == lastModified) {
+			return entry.value;
+		}
+		byte[] hash = hash(descriptor);
+		if (hash != null && Arrays.equals(hash, entry.hash)) {
+			/* touched, but not changed */
+			this.entries.put(descriptor.getAbsolutePath(), new Entry(
+					entry.size, lastModified, hash, entry.value));
+			this.modified.set(true);
+			return entry.value;
+		}
+		return null;
+	}
+
+	/**
+	 * caches the parsed descriptor for the given file, if it is restored
+	 * completely by deserialisation.
+	 *
+	 * @param descriptor
+	 *            the descriptor file
+	 * @param value
+	 *            the parsed descriptor
+	 */
+	protected void put(final File descriptor, final Object value) {
+		this.used.add(descriptor.getAbsolutePath());
+		if (!isRestorable(value)) {
+			LOGGER.trace("Not caching {}: not restorable.", descriptor);
+			return;
+		}
+		long size = descriptor.length();
+		long lastModified = descriptor.lastModified();
+		byte[] hash = hash(descriptor);
+		if (hash == null) {
+			return;
+		}
+		this.entries.put(descriptor.getAbsolutePath(), new Entry(size,
+				lastModified, hash, (Serializable) value));
+		this.modified.set(true);
+	}
+
+	/**
+	 * drops the entries of descriptors not looked up since loading and writes
+	 * the cache file, if the cache has been modified.
+	 */
+	protected void save() {
+		if (this.entries.keySet().retainAll(this.used)) {
+			this.modified.set(true);
+		}
+		if (!this.modified.compareAndSet(true, false)) {
+			return;
+		}
+		File tmp = new File(this.cacheFile.getAbsolutePath() + ".tmp");
+		ObjectOutputStream out = null;
+		try {
+			out = new ObjectOutputStream(new BufferedOutputStream(
+					new FileOutputStream(tmp)));
+			out.writeUTF(this.fingerprint);
+			out.writeObject(new HashMap<String, Entry>(this.entries));
+			out.close();
+			out = null;
+			if (!tmp.renameTo(this.cacheFile)
+					&& !(this.cacheFile.delete() && tmp
+							.renameTo(this.cacheFile))) {
+				LOGGER.warn("Cannot replace startup cache '{}'.",
+						this.cacheFile.getAbsolutePath());
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Cannot write startup cache: {}",
+					e.getLocalizedMessage());
+		} finally {
+			close(out);
+		}
+	}
+
+	/**
+	 * loads the cache file.
+	 */
+	@SuppressWarnings("unchecked")
+	private void load() {
+		if (!this.cacheFile.isFile()) {
+			return;
+		}
+		ObjectInputStream in = null;
+		try {
+			in = new AllowListObjectInputStream(new BufferedInputStream(
+					new FileInputStream(this.cacheFile)));
+			if (!this.fingerprint.equals(in.readUTF())) {
+				LOGGER.info("Discarding startup cache: class path changed.");
+				this.modified.set(true);
+				return;
+			}
+			this.entries.putAll((Map<String, Entry>) in.readObject());
+			LOGGER.debug("Loaded {} entries from startup cache.",
+					this.entries.size());
+		} catch (Exception e) {
+			LOGGER.info("Discarding startup cache: {}",
+					e.getLocalizedMessage());
+			this.entries.clear();
+			this.modified.set(true);
+		} finally {
+			close(in);
+		}
+	}
+
+	/**
+	 * checks, whether the given object graph is restored completely by
+	 * deserialisation.
+	 *
+	 * @param value
+	 *            the root of the object graph
+	 * @return {@code true}, if the object graph may be cached
+	 */
+	protected static boolean isRestorable(final Object value) {
+		if (!(value instanceof Serializable)) {
+			return false;
+		}
+		Map<Object, Boolean> visited = new IdentityHashMap<Object, Boolean>();
+		Deque<Object> pending = new ArrayDeque<Object>();
+		pending.push(value);
+		try {
+			while (!pending.isEmpty()) {
+				Object current = pending.pop();
+				if (visited.put(current, Boolean.TRUE) != null) {
+					continue;
+				}
+				Class<?> type = current.getClass();
+				if (!type.isArray() && !(current instanceof Serializable)) {
+					return false;
+				}
+				if (type.isArray()) {
+					if (!type.getComponentType().isPrimitive()) {
+						for (int i = 0; i < Array.getLength(current); i++) {
+							pushIfNotNull(pending, Array.get(current, i));
+						}
+					}
+				} else if (current instanceof Collection<?>) {
+					for (Object element : (Collection<?>) current) {
+						pushIfNotNull(pending, element);
+					}
+				} else if (current instanceof Map<?, ?>) {
+					for (Map.Entry<?, ?> entry : ((Map<?, ?>) current)
+							.entrySet()) {
+						pushIfNotNull(pending, entry.getKey());
+						pushIfNotNull(pending, entry.getValue());
+					}
+				} else if (!type.getName().startsWith("java.")
+						&& !pushFields(pending, current)) {
+					return false;
+				}
+			}
+		} catch (IllegalAccessException e) {
+			LOGGER.trace(e.getLocalizedMessage());
+			return false;
+		} catch (SecurityException e) {
+			LOGGER.trace(e.getLocalizedMessage());
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * pushes the field values of the given object, unless its class declares
+	 * {@code transient} fields or JAXB unmarshal callbacks.
+	 *
+	 * @param pending
+	 *            the objects still to be checked
+	 * @param object
+	 *            the object
+	 * @return {@code false}, if the object is not restored completely by
+	 *         deserialisation
+	 * @throws IllegalAccessException
+	 *             if a field cannot be read
+	 */
+	private static boolean pushFields(final Deque<Object> pending,
+			final Object object) throws IllegalAccessException {
+		for (Class<?> c = object.getClass(); c != null
+				&& c != Object.class; c = c.getSuperclass()) {
+			for (Method method : c.getDeclaredMethods()) {
+				if ("afterUnmarshal".equals(method.getName())
+						|| "beforeUnmarshal".equals(method.getName())) {
+					return false;
+				}
+			}
+			for (Field field : c.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+				if (Modifier.isStatic(modifiers)) {
+					continue;
+				}
+				if (Modifier.isTransient(modifiers)) {
+					return false;
+				}
+				if (!field.getType().isPrimitive()) {
+					field.setAccessible(true);
+					pushIfNotNull(pending, field.get(object));
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * pushes the given object, unless it is {@code null}.
+	 *
+	 * @param pending
+	 *            the objects still to be checked
+	 * @param object
+	 *            the object, may be {@code null}
+	 */
+	private static void pushIfNotNull(final Deque<Object> pending,
+			final Object object) {
+		if (object != null) {
+			pending.push(object);
+		}
+	}
+
+	/**
+	 * computes the fingerprint of the class path of the given type.
+	 *
+	 * @param type
+	 *            the type
+	 * @return the fingerprint
+	 */
+	private static String fingerprint(final Class<?> type) {
+		StringBuilder builder = new StringBuilder(type.getName());
+		ObjectStreamClass streamClass = ObjectStreamClass.lookup(type);
+		if (streamClass != null) {
+			builder.append('|').append(streamClass.getSerialVersionUID());
+		}
+		CodeSource source = type.getProtectionDomain().getCodeSource();
+		if (source != null && source.getLocation() != null) {
+			URL location = source.getLocation();
+			builder.append('|').append(location);
+			try {
+				File file = new File(location.toURI());
+				if (file.isDirectory()) {
+					file = new File(file, type.getName().replace('.',
+							File.separatorChar)
+							+ ".class");
+				}
+				builder.append('|').append(file.length()).append('|')
+						.append(file.lastModified());
+			} catch (URISyntaxException e) {
+				LOGGER.trace(e.getLocalizedMessage());
+			} catch (IllegalArgumentException e) {
+				LOGGER.trace(e.getLocalizedMessage());
+			}
+		}
+		if (type.getPackage() != null) {
+			builder.append('|').append(
+					type.getPackage().getImplementationVersion());
+		}
+		builder.append('|').append(System.getProperty("java.class.path"));
+		return builder.toString();
+	}
+
+	/**
+	 * computes the SHA-1 hash of the given file.
+	 *
+	 * @param file
+	 *            the file
+	 * @return the hash, or {@code null} on errors
+	 */
+	private static byte[] hash(final File file) {
+		InputStream in = null;
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			in = new FileInputStream(file);
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+			return digest.digest();
+		} catch (IOException e) {
+			LOGGER.warn("Cannot hash '{}': {}", file, e.getLocalizedMessage());
+			return null;
+		} catch (NoSuchAlgorithmException e) {
+			LOGGER.warn(e.getLocalizedMessage());
+			return null;
+		} finally {
+			close(in);
+		}
+	}
+
+	/**
+	 * quietly closes the given stream.
+	 *
+	 * @param closeable
+	 *            the stream, may be {@code null}
+	 */
+	private static void close(final Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				LOGGER.trace(e.getLocalizedMessage());
+			}
+		}
+	}
+
+	/**
+	 * an {@code ObjectInputStream} which only resolves the classes allowed
+	 * by {@link LifecycleStartupCache#ALLOWED_CLASSES}.
+	 */
+	private static final class AllowListObjectInputStream extends
+			ObjectInputStream {
+
+		/**
+		 * creates a new stream.
+		 *
+		 * @param in
+		 *            the underlying stream
+		 * @throws IOException
+		 *             if the stream header cannot be read
+		 */
+		private AllowListObjectInputStream(final InputStream in)
+				throws IOException {
+			super(in);
+		}
+
+		/**
+		 * resolves the given class, if it is allowed.
+		 *
+		 * @param desc
+		 *            the class descriptor
+		 * @return the class
+		 * @throws IOException
+		 *             if the class is not allowed
+		 * @throws ClassNotFoundException
+		 *             if the class cannot be found
+		 */
+		@Override
+		protected Class<?> resolveClass(final ObjectStreamClass desc)
+				throws IOException, ClassNotFoundException {
+			String name = desc.getName();
+			/* arrays: check the element type */
+			if (name.startsWith("[")) {
+				name = name.substring(name.lastIndexOf('[') + 1);
+				if (name.length() == 1) {
+					/* primitive element type */
+					return super.resolveClass(desc);
+				}
+				name = name.substring(1, name.length() - 1);
+			}
+			for (String allowed : ALLOWED_CLASSES) {
+				if (allowed.endsWith(".") ? name.startsWith(allowed) : name
+						.equals(allowed)) {
+					return super.resolveClass(desc);
+				}
+			}
+			throw new InvalidClassException(desc.getName(),
+					"not allowed in the startup cache");
+		}
+	}
+
+	/**
+	 * a cache entry.
+	 */
+	private static final class Entry implements Serializable {
+
+		/**
+		 * serialVersionUID.
+		 */
+		private static final long serialVersionUID = 2190458862409234471L;
+
+		/**
+		 * the size of the descriptor file.
+		 */
+		private final long size;
+
+		/**
+		 * the last modification time of the descriptor file.
+		 */
+		private final long lastModified;
+
+		/**
+		 * the SHA-1 hash of the descriptor file.
+		 */
+		private final byte[] hash;
+
+		/**
+		 * the parsed descriptor.
+		 */
+		private final Serializable value;
+
+		/**
+		 * creates a new entry.
+		 *
+		 * @param s
+		 *            the size
+		 * @param lm
+		 *            the last modification time
+		 * @param h
+		 *            the hash
+		 * @param v
+		 *            the parsed descriptor
+		 */
+		private Entry(final long s, final long lm, final byte[] h,
+				final Serializable v) {
+			this.size = s;
+			this.lastModified = lm;
+			this.hash = h;
+			this.value = v;
+		}
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.invocation.lifecycle;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * an immutable snapshot of the state of the {@code Lifecycle}, e.g. for
+ * readiness checks of a load balancer.
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ * @see Lifecycle#getStatus()
+ */
+public final class LifecycleStatus {
+
+	/**
+	 * the phase.
+	 */
+	private final LifecyclePhase phase;
+
+	/**
+	 * the progress of the current phase in percent.
+	 */
+	private final int percentComplete;
+
+	/**
+	 * the current step.
+	 */
+	private final String currentStep;
+
+	/**
+	 * the degraded sub-systems with the reason.
+	 */
+	private final Map<String, String> degraded;
+
+	/**
+	 * creates a new status.
+	 *
+	 * @param p
+	 *            the phase
+	 * @param percent
+	 *            the progress of the current phase in percent
+	 * @param step
+	 *            the current step, may be {@code null}
+	 * @param d
+	 *            the degraded sub-systems with the reason
+	 */
+	protected LifecycleStatus(final LifecyclePhase p, final int percent,
+			final String step, final Map<String, String> d) {
+		this.phase = p;
+		this.percentComplete = percent;
+		this.currentStep = step;
+		this.degraded = Collections
+				.unmodifiableMap(new HashMap<String, String>(d));
+	}
+
+	/**
+	 * @return the phase
+	 */
+	public LifecyclePhase getPhase() {
+		return this.phase;
+	}
+
+	/**
+	 * @return the progress of the current phase in percent
+	 */
+	public int getPercentComplete() {
+		return this.percentComplete;
+	}
+
+	/**
+	 * @return the current step, or {@code null}
+	 */
+	public String getCurrentStep() {
+		return this.currentStep;
+	}
+
+	/**
+	 * @return the degraded sub-systems with the reason
+	 */
+	public Map<String, String> getDegradedSubsystems() {
+		return this.degraded;
+	}
+
+	/**
+	 * @return {@code true}, if the {@code Lifecycle} is ready to serve
+	 *         requests
+	 */
+	public boolean isReady() {
+		return this.phase == LifecyclePhase.READY;
+	}
+
+	/**
+	 * @return a string representation of the status
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(this.phase.name());
+		builder.append(' ').append(this.percentComplete).append('%');
+		if (this.currentStep != null) {
+			builder.append(" (").append(this.currentStep).append(')');
+		}
+		if (!this.degraded.isEmpty()) {
+			builder.append(", degraded: ").append(this.degraded);
+		}
+		return builder.toString();
+	}
+
+}
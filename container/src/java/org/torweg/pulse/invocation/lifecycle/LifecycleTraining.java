@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.invocation.lifecycle;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+
+/**
+ * boots and shuts down the {@code Lifecycle} once, e.g. to record the loaded
+ * classes for an application class-data-sharing (AppCDS) archive and to
+ * measure the cold boot time.
+ * <p>
+ * Training run, writing the archive when the JVM exits:
+ * </p>
+ *
+ * <pre>
+ * java -XX:ArchiveClassesAtExit=pulse.jsa -cp ... \
+ *     org.torweg.pulse.invocation.lifecycle.LifecycleTraining &lt;webapp&gt;
+ * </pre>
+ * <p>
+ * Benchmark: run the same command once without any archive and once with
+ * {@code -XX:SharedArchiveFile=pulse.jsa} and compare the reported times.
+ * </p>
+ * <p>
+ * The {@code Lifecycle} is started with {@link Lifecycle#testStartup(File)},
+ * i.e. with {@code WEB-INF/conf/test.xml} of the given webapp. With the test
+ * configuration the startup cache is neither read nor written, so every run
+ * parses all descriptors and the training records the classes of a cold
+ * boot. The JVM is ended with {@link System#exit(int)}, as non-daemon
+ * threads left by the container would otherwise keep it (and the archive
+ * dump) from finishing.
+ * </p>
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ */
+public final class LifecycleTraining {
+
+	/**
+	 * hidden constructor.
+	 */
+	private LifecycleTraining() {
+		super();
+	}
+
+	/**
+	 * boots and shuts down the {@code Lifecycle}, reporting the boot time.
+	 *
+	 * @param args
+	 *            the root directory of the <em>pulse</em> webapp
+	 */
+	public static void main(final String[] args) {
+		if (args.length != 1) {
+			System.err.println("usage: LifecycleTraining <pulse webapp>"); // NOPMD
+			System.exit(1);
+		}
+		long start = System.currentTimeMillis();
+		try {
+			Lifecycle.testStartup(new File(args[0]));
+		} catch (LifecycleException e) {
+			System.err.println("Lifecycle failed to start: " // NOPMD
+					+ e.getLocalizedMessage());
+			System.exit(1);
+		}
+		long boot = System.currentTimeMillis() - start;
+		long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+		LifecycleStatus status = Lifecycle.getStatus();
+		Lifecycle.shutdown();
+		System.out.println("Lifecycle boot: " + boot // NOPMD
+				+ " ms, JVM uptime when ready: " + uptime + " ms, status: "
+				+ status);
+		System.exit(0);
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.invocation.lifecycle;
+
+/**
+ * determines which sub-systems the {@code Lifecycle} starts eagerly.
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ * @see Lifecycle#startup(java.io.File, StartupProfile)
+ * @see Lifecycle#testStartup(java.io.File, StartupProfile)
+ */
+public enum StartupProfile {
+
+	/**
+	 * all sub-systems are started during startup (the default).
+	 */
+	FULL,
+
+	/**
+	 * the {@code MailQueue}, the {@code IGeoLocationProvider}, the
+	 * {@code ICaptchaAdapter} and the {@code FopFactory} are started on first
+	 * access through the {@code Lifecycle}'s getters; the WatchDog is not
+	 * started at all.
+	 * <p>
+	 * Intended for unit tests and command line tools, which usually only need
+	 * Hibernate and a few bundles.
+	 * </p>
+	 */
+	ON_DEMAND;
+
+}
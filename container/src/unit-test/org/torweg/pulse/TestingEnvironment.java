@@ -18,11 +18,19 @@
 package org.torweg.pulse;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 import org.apache.log4j.BasicConfigurator;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.log4j.NDC;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.search.Search;
 import org.torweg.pulse.invocation.lifecycle.Lifecycle;
 
 /**
@@ -31,12 +39,59 @@ import org.torweg.pulse.invocation.lifecycle.Lifecycle;
  * <p>
  * <strong>This class requires the dist directory to be built.</strong>
  * </p>
+ * <p>
+ * The database state right after startup (the migrated schema and the users
+ * and groups created by the {@code Lifecycle}) is the snapshot every test
+ * starts from. The test database is an in-memory database, i.e. every JVM
+ * (every fork of the test run) has a database and a snapshot of its own.
+ * </p>
+ * <p>
+ * Tests working on the database use an isolated session (see
+ * {@link #beginIsolatedSession()}), whose transaction is always rolled back.
+ * Nothing such a test writes is committed: the database, the search indexes
+ * (updated on commit only) and the second-level cache are left untouched, so
+ * these tests neither depend on their order nor on each other and may run in
+ * parallel within one JVM. Concurrent isolated sessions rely on the row-level
+ * locking of H2's default storage engine (H2 1.4 and later).
+ * </p>
+ * <p>
+ * The rollback does not cover sessions opened and committed by the code under
+ * test itself via {@code Lifecycle.getHibernateDataSource()} (e.g. by the
+ * registries, bundles or the access control). Test classes exercising such
+ * code must run exclusively: they call {@link #beginExclusiveTest()} before
+ * their first and {@link #endExclusiveTest()} after their last test. The
+ * exclusive test waits for all isolated sessions of other tests, blocks new
+ * ones and finally restores the snapshot, the search indexes and the
+ * second-level cache.
+ * </p>
  * 
  * @author Thomas Weber
  * @version $Revision: 1437 $
  */
 public final class TestingEnvironment {
 
+	/**
+	 * guards the isolated sessions and the exclusive tests.
+	 */
+	private static final Object LOCK = new Object();
+
+	/**
+	 * the snapshot of the test database taken right after startup.
+	 */
+	private static final File SNAPSHOT;
+
+	/**
+	 * the open isolated sessions of non-exclusive tests.
+	 */
+	private static final Set<Session> ISOLATED_SESSIONS = Collections
+			.newSetFromMap(new IdentityHashMap<Session, Boolean>());
+
+	/**
+	 * the thread running the current exclusive test, {@code null}, if no
+	 * exclusive test is running.
+	 */
+	private static Thread exclusiveTest;
+
 	/**
 	 * initialises the test environment.
 	 */
@@ -47,6 +102,7 @@ public final class TestingEnvironment {
 		NDC.push("startup");
 		try {
 			Lifecycle.testStartup(new File(TestConstants.MAIN_DIST()));
+			SNAPSHOT = createSnapshot();
 		} finally {
 			NDC.pop();
 			NDC.remove();
@@ -57,4 +113,188 @@ public final class TestingEnvironment {
 		super();
 	}
 
+	/**
+	 * opens a new session on the test database and begins a transaction,
+	 * which is rolled back by {@link #endIsolatedSession(Session)}.
+	 * <p>
+	 * The session must not commit its transaction. While an exclusive test is
+	 * running, only the thread running it may open isolated sessions, all
+	 * other threads wait for the exclusive test to end.
+	 * </p>
+	 * 
+	 * @return the session
+	 */
+	public static Session beginIsolatedSession() {
+		Session session;
+		synchronized (LOCK) {
+			while (exclusiveTest != null
+					&& exclusiveTest != Thread.currentThread()) {
+				await();
+			}
+			session = Lifecycle.getHibernateDataSource()
+					.createNewStatefulSession();
+			if (exclusiveTest == null) {
+				ISOLATED_SESSIONS.add(session);
+			}
+		}
+		boolean begun = false;
+		try {
+			session.beginTransaction();
+			begun = true;
+		} finally {
+			if (!begun) {
+				endIsolatedSession(session);
+			}
+		}
+		return session;
+	}
+
+	/**
+	 * rolls back the transaction of the given isolated session and closes the
+	 * session.
+	 * 
+	 * @param session
+	 *            the session opened by {@link #beginIsolatedSession()}
+	 */
+	public static void endIsolatedSession(final Session session) {
+		try {
+			Transaction tx = session.getTransaction();
+			if (tx.isActive()) {
+				tx.rollback();
+			}
+		} finally {
+			session.close();
+			synchronized (LOCK) {
+				if (ISOLATED_SESSIONS.remove(session)) {
+					LOCK.notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * begins an exclusive test, i.e. a test whose code under test commits
+	 * sessions of its own.
+	 * <p>
+	 * Waits for other exclusive tests and for the isolated sessions of all
+	 * other tests to end. Until {@link #endExclusiveTest()} is called, no
+	 * other test can open an isolated session.
+	 * </p>
+	 */
+	public static void beginExclusiveTest() {
+		synchronized (LOCK) {
+			if (exclusiveTest == Thread.currentThread()) {
+				throw new IllegalStateException(
+						"The exclusive test has already begun.");
+			}
+			while (exclusiveTest != null) {
+				await();
+			}
+			exclusiveTest = Thread.currentThread();
+			while (!ISOLATED_SESSIONS.isEmpty()) {
+				await();
+			}
+		}
+	}
+
+	/**
+	 * ends the exclusive test begun by {@link #beginExclusiveTest()}: restores
+	 * the snapshot of the test database, rebuilds the search indexes from it
+	 * and clears the second-level cache.
+	 */
+	public static void endExclusiveTest() {
+		synchronized (LOCK) {
+			if (exclusiveTest != Thread.currentThread()) {
+				throw new IllegalStateException(
+						"No exclusive test has been begun by this thread.");
+			}
+		}
+		try {
+			restoreSnapshot();
+		} finally {
+			synchronized (LOCK) {
+				exclusiveTest = null; // NOPMD
+				LOCK.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * writes the current state of the test database to a temporary file.
+	 * 
+	 * @return the snapshot
+	 */
+	private static File createSnapshot() {
+		File snapshot;
+		try {
+			snapshot = File.createTempFile("pulse-testdb", ".sql");
+		} catch (IOException e) {
+			throw new IllegalStateException(
+					"Cannot create the database snapshot.", e);
+		}
+		snapshot.deleteOnExit();
+		Session session = Lifecycle.getHibernateDataSource()
+				.createNewStatefulSession();
+		try {
+			session.createSQLQuery("SCRIPT TO " + quote(snapshot)).list();
+		} finally {
+			session.close();
+		}
+		return snapshot;
+	}
+
+	/**
+	 * restores the snapshot of the test database, rebuilds the search indexes
+	 * and clears the second-level cache.
+	 */
+	private static void restoreSnapshot() {
+		Session session = Lifecycle.getHibernateDataSource()
+				.createNewStatefulSession();
+		try {
+			Transaction tx = session.beginTransaction();
+			session.createSQLQuery("DROP ALL OBJECTS").executeUpdate();
+			session.createSQLQuery("RUNSCRIPT FROM " + quote(SNAPSHOT))
+					.executeUpdate();
+			tx.commit();
+
+			/* nothing else runs: the cache may be cleared as a whole */
+			Cache cache = session.getSessionFactory().getCache();
+			cache.evictEntityRegions();
+			cache.evictCollectionRegions();
+			cache.evictQueryRegions();
+
+			/* purges the indexes and re-indexes the restored entities */
+			Search.getFullTextSession(session).createIndexer()
+					.startAndWait();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(
+					"Interrupted while rebuilding the search indexes.", e);
+		} finally {
+			session.close();
+		}
+	}
+
+	/**
+	 * @param file
+	 *            the file
+	 * @return the path of the given file as an SQL string literal
+	 */
+	private static String quote(final File file) {
+		return "'" + file.getAbsolutePath().replace("'", "''") + "'";
+	}
+
+	/**
+	 * waits on the {@link #LOCK}, which must be held by the current thread.
+	 */
+	private static void await() {
+		try {
+			LOCK.wait();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(
+					"Interrupted while waiting for an exclusive test.", e);
+		}
+	}
+
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse;
+
+import static org.junit.Assert.assertEquals;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.torweg.pulse.invocation.lifecycle.Lifecycle;
+
+/**
+ * tests the isolated sessions and the exclusive tests of the
+ * {@code TestingEnvironment}.
+ * <p>
+ * The test runs exclusively, as it commits the probe table, which is dropped
+ * again by restoring the snapshot of the test database.
+ * </p>
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ */
+public class TestingEnvironmentTest {
+
+	/**
+	 * begins the exclusive test and creates the probe table.
+	 */
+	@BeforeClass
+	public static void createProbeTable() {
+		new TestingEnvironment();
+		TestingEnvironment.beginExclusiveTest();
+		executeCommitted("CREATE TABLE isolation_probe (id INT)");
+		executeCommitted("INSERT INTO isolation_probe (id) VALUES (0)");
+	}
+
+	/**
+	 * ends the exclusive test and checks, that the probe table has been
+	 * dropped by restoring the snapshot.
+	 */
+	@AfterClass
+	public static void restoreSnapshot() {
+		TestingEnvironment.endExclusiveTest();
+		Session session = TestingEnvironment.beginIsolatedSession();
+		try {
+			assertEquals(0, ((Number) session.createSQLQuery(
+					"SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES "
+							+ "WHERE TABLE_NAME = 'ISOLATION_PROBE'")
+					.uniqueResult()).intValue());
+		} finally {
+			TestingEnvironment.endIsolatedSession(session);
+		}
+	}
+
+	/**
+	 * tests, that the writes of an isolated session are rolled back.
+	 */
+	@Test
+	public void testWritesAreRolledBack() {
+		Session session = TestingEnvironment.beginIsolatedSession();
+		try {
+			insert(session, 1);
+			assertEquals(2, count(session));
+		} finally {
+			TestingEnvironment.endIsolatedSession(session);
+		}
+
+		session = TestingEnvironment.beginIsolatedSession();
+		try {
+			assertEquals(1, count(session));
+		} finally {
+			TestingEnvironment.endIsolatedSession(session);
+		}
+	}
+
+	/**
+	 * tests, that concurrent isolated sessions do not see each other's writes.
+	 */
+	@Test
+	public void testConcurrentSessionsAreIsolated() {
+		Session first = TestingEnvironment.beginIsolatedSession();
+		Session second = TestingEnvironment.beginIsolatedSession();
+		try {
+			insert(first, 1);
+			insert(second, 2);
+			insert(second, 3);
+			assertEquals(2, count(first));
+			assertEquals(3, count(second));
+		} finally {
+			TestingEnvironment.endIsolatedSession(first);
+			TestingEnvironment.endIsolatedSession(second);
+		}
+	}
+
+	/**
+	 * inserts a row into the probe table.
+	 *
+	 * @param session
+	 *            the session
+	 * @param id
+	 *            the id of the row
+	 */
+	private static void insert(final Session session, final int id) {
+		session.createSQLQuery(
+				"INSERT INTO isolation_probe (id) VALUES (" + id + ")")
+				.executeUpdate();
+	}
+
+	/**
+	 * counts the rows of the probe table.
+	 *
+	 * @param session
+	 *            the session
+	 * @return the number of rows
+	 */
+	private static int count(final Session session) {
+		return ((Number) session.createSQLQuery(
+				"SELECT COUNT(*) FROM isolation_probe").uniqueResult())
+				.intValue();
+	}
+
+	/**
+	 * executes the given statement in a committed transaction.
+	 *
+	 * @param sql
+	 *            the statement
+	 */
+	private static void executeCommitted(final String sql) {
+		Session session = Lifecycle.getHibernateDataSource()
+				.createNewStatefulSession();
+		try {
+			Transaction tx = session.beginTransaction();
+			session.createSQLQuery(sql).executeUpdate();
+			tx.commit();
+		} finally {
+			session.close();
+		}
+	}
+
+}
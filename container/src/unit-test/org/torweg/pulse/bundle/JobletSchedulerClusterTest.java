@@ -0,0 +1,259 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.bundle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.SchedulerRepository;
+import org.quartz.impl.StdSchedulerFactory;
+
+/**
+ * tests the clustered JDBC job store as configured in the commented-out
+ * block of the {@code <joblet-scheduler-configuration>} in
+ * {@code conf/test.xml}: two schedulers of one cluster share an in-memory H2
+ * database holding the Quartz tables and every trigger fires exactly once,
+ * even though the second node starts while the first has already acquired a
+ * trigger.
+ * <p>
+ * The database stands in for the pulse database, so that the test does not
+ * need a started {@code Lifecycle}. The Quartz tables are created by the
+ * {@code tables_h2.sql} script, which is part of the Quartz jar.
+ * </p>
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ */
+public class JobletSchedulerClusterTest {
+
+	/**
+	 * the URL of the shared database.
+	 */
+	private static final String URL = "jdbc:h2:mem:quartz-cluster;DB_CLOSE_DELAY=-1";
+
+	/**
+	 * the name of the scheduler, shared by all nodes of the cluster.
+	 */
+	private static final String SCHEDULER_NAME = "JobletScheduler";
+
+	/**
+	 * the number of joblets scheduled.
+	 */
+	private static final int JOBLETS = 20;
+
+	/**
+	 * the number of executions by trigger name.
+	 */
+	private static final Map<String, AtomicInteger> EXECUTIONS = new ConcurrentHashMap<String, AtomicInteger>();
+
+	/**
+	 * counted down on every execution.
+	 */
+	private static volatile CountDownLatch executed;
+
+	/**
+	 * keeps the in-memory database open.
+	 */
+	private Connection connection;
+
+	/**
+	 * the first node.
+	 */
+	private Scheduler first;
+
+	/**
+	 * the second node.
+	 */
+	private Scheduler second;
+
+	/**
+	 * creates the Quartz tables and both nodes.
+	 *
+	 * @throws SQLException
+	 *             on errors
+	 * @throws SchedulerException
+	 *             on errors
+	 */
+	@Before
+	public void setUp() throws SQLException, SchedulerException {
+		EXECUTIONS.clear();
+		executed = new CountDownLatch(JOBLETS);
+		this.connection = DriverManager.getConnection(URL);
+		Statement statement = this.connection.createStatement();
+		try {
+			statement.execute("RUNSCRIPT FROM "
+					+ "'classpath:/org/quartz/impl/jdbcjobstore/tables_h2.sql'");
+		} finally {
+			statement.close();
+		}
+		this.first = createNode("node-1");
+		this.second = createNode("node-2");
+	}
+
+	/**
+	 * shuts both nodes down and drops the database.
+	 *
+	 * @throws SQLException
+	 *             on errors
+	 * @throws SchedulerException
+	 *             on errors
+	 */
+	@After
+	public void tearDown() throws SQLException, SchedulerException {
+		try {
+			if (this.first != null) {
+				this.first.shutdown(true);
+			}
+			if (this.second != null) {
+				this.second.shutdown(true);
+			}
+		} finally {
+			Statement statement = this.connection.createStatement();
+			try {
+				statement.execute("DROP ALL OBJECTS");
+			} finally {
+				statement.close();
+				this.connection.close();
+			}
+		}
+	}
+
+	/**
+	 * tests, that every trigger fires once in the cluster.
+	 *
+	 * @throws SchedulerException
+	 *             on errors
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	@Test(timeout = 60000)
+	public void testEveryTriggerFiresOnce() throws SchedulerException,
+			InterruptedException {
+		Date start = new Date(System.currentTimeMillis() + 2000);
+		for (int i = 0; i < JOBLETS; i++) {
+			this.first.scheduleJob(
+					JobBuilder.newJob(CountingJoblet.class)
+							.withIdentity("joblet-" + i).build(),
+					TriggerBuilder.newTrigger().withIdentity("trigger-" + i)
+							.startAt(start).build());
+		}
+		this.first.start();
+		/*
+		 * the first node has acquired a trigger, which must not be recovered
+		 * by the second node
+		 */
+		Thread.sleep(1000);
+		this.second.start();
+
+		assertTrue(executed.await(30, TimeUnit.SECONDS));
+		/* give a duplicate execution the chance to show up */
+		Thread.sleep(2000);
+
+		assertEquals(JOBLETS, EXECUTIONS.size());
+		for (Map.Entry<String, AtomicInteger> execution : EXECUTIONS
+				.entrySet()) {
+			assertEquals(execution.getKey(), 1, execution.getValue().get());
+		}
+	}
+
+	/**
+	 * creates a node of the cluster, configured like the commented-out block
+	 * in {@code conf/test.xml}.
+	 *
+	 * @param instanceId
+	 *            the instance id of the node
+	 * @return the scheduler of the node
+	 * @throws SchedulerException
+	 *             on errors
+	 */
+	private static Scheduler createNode(final String instanceId)
+			throws SchedulerException {
+		Properties properties = new Properties();
+		properties.setProperty("org.quartz.scheduler.instanceName",
+				SCHEDULER_NAME);
+		properties.setProperty("org.quartz.scheduler.instanceId", instanceId);
+		properties.setProperty("org.quartz.scheduler.skipUpdateCheck", "true");
+		properties.setProperty("org.quartz.threadPool.class",
+				JobletThreadPool.class.getName());
+		properties.setProperty("org.quartz.threadPool.maxConcurrency", "5");
+		properties.setProperty("org.quartz.jobStore.class",
+				"org.quartz.impl.jdbcjobstore.JobStoreTX");
+		properties.setProperty("org.quartz.jobStore.driverDelegateClass",
+				"org.quartz.impl.jdbcjobstore.StdJDBCDelegate");
+		properties.setProperty("org.quartz.jobStore.dataSource", "pulse");
+		properties.setProperty("org.quartz.jobStore.isClustered", "true");
+		properties.setProperty("org.quartz.jobStore.clusterCheckinInterval",
+				"1000");
+		properties.setProperty(
+				"org.quartz.jobStore.acquireTriggersWithinLock", "true");
+		properties.setProperty("org.quartz.dataSource.pulse.driver",
+				"org.h2.Driver");
+		properties.setProperty("org.quartz.dataSource.pulse.URL", URL);
+		properties.setProperty("org.quartz.dataSource.pulse.maxConnections",
+				"5");
+		Scheduler scheduler = new StdSchedulerFactory(properties)
+				.getScheduler();
+		/*
+		 * the nodes share the scheduler name, the repository would hand out
+		 * the first node again
+		 */
+		SchedulerRepository.getInstance().remove(SCHEDULER_NAME);
+		return scheduler;
+	}
+
+	/**
+	 * a joblet counting its executions.
+	 */
+	public static final class CountingJoblet implements Job {
+
+		/**
+		 * counts the execution.
+		 *
+		 * @param context
+		 *            the execution context
+		 */
+		public void execute(final JobExecutionContext context) {
+			String trigger = context.getTrigger().getKey().getName();
+			EXECUTIONS.putIfAbsent(trigger, new AtomicInteger());
+			EXECUTIONS.get(trigger).incrementAndGet();
+			executed.countDown();
+		}
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.bundle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * tests the {@code JobletStatistics}.
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ */
+public class JobletStatisticsTest {
+
+	/**
+	 * clears the statistics.
+	 */
+	@After
+	public void tearDown() {
+		JobletStatistics.reset();
+	}
+
+	/**
+	 * tests the recorded values.
+	 */
+	@Test
+	public void testRecording() {
+		JobletStatistics stats = JobletStatistics.forJob("group.joblet");
+		stats.recordExecution(10, false);
+		stats.recordExecution(30, true);
+		stats.recordMisfire();
+
+		assertEquals(2, stats.getExecutions());
+		assertEquals(1, stats.getFailures());
+		assertEquals(1, stats.getMisfires());
+		assertEquals(30, stats.getMaxExecutionTime());
+		assertEquals(20, stats.getAverageExecutionTime());
+		assertEquals(stats, JobletStatistics.getAll().get("group.joblet"));
+	}
+
+	/**
+	 * tests, that the number of joblets is capped, evicting the statistics
+	 * updated least recently.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	@Test
+	public void testEviction() throws InterruptedException {
+		for (int i = 0; i < JobletStatistics.MAX_JOBLETS; i++) {
+			JobletStatistics.forJob("joblet-" + i).recordExecution(1, false);
+		}
+		Thread.sleep(5);
+		/* all but the first joblet are updated again */
+		for (int i = 1; i < JobletStatistics.MAX_JOBLETS; i++) {
+			JobletStatistics.forJob("joblet-" + i).recordMisfire();
+		}
+
+		JobletStatistics.forJob("new");
+		assertEquals(JobletStatistics.MAX_JOBLETS, JobletStatistics.getAll()
+				.size());
+		assertFalse(JobletStatistics.getAll().containsKey("joblet-0"));
+		assertTrue(JobletStatistics.getAll().containsKey("new"));
+	}
+
+	/**
+	 * tests, that {@code reset()} clears all statistics.
+	 */
+	@Test
+	public void testReset() {
+		JobletStatistics.forJob("group.joblet").recordExecution(1, false);
+		JobletStatistics.reset();
+		assertTrue(JobletStatistics.getAll().isEmpty());
+	}
+
+}
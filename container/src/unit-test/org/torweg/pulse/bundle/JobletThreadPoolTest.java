@@ -0,0 +1,269 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.bundle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.quartz.SchedulerConfigException;
+
+/**
+ * tests the {@code JobletThreadPool}.
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ */
+public class JobletThreadPoolTest {
+
+	/**
+	 * the maximum number of concurrently running joblets of the pool.
+	 */
+	private static final int MAX_CONCURRENCY = 2;
+
+	/**
+	 * the pool.
+	 */
+	private JobletThreadPool pool;
+
+	/**
+	 * released to let the blocking joblets finish.
+	 */
+	private CountDownLatch release;
+
+	/**
+	 * creates the pool.
+	 *
+	 * @throws SchedulerConfigException
+	 *             on errors
+	 */
+	@Before
+	public void setUp() throws SchedulerConfigException {
+		this.pool = new JobletThreadPool();
+		this.pool.setInstanceName("JobletThreadPoolTest");
+		this.pool.setMaxConcurrency(MAX_CONCURRENCY);
+		this.pool.initialize();
+		this.release = new CountDownLatch(1);
+	}
+
+	/**
+	 * shuts the pool down.
+	 */
+	@After
+	public void tearDown() {
+		this.release.countDown();
+		this.pool.shutdown(true);
+	}
+
+	/**
+	 * tests, that no more than {@code maxConcurrency} joblets run at once and
+	 * that further joblets wait for a permit.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	@Test(timeout = 10000)
+	public void testConcurrencyIsCapped() throws InterruptedException {
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		final CountDownLatch done = new CountDownLatch(5);
+		final Runnable joblet = new Runnable() {
+			public void run() {
+				int now = running.incrementAndGet();
+				int max = maxRunning.get();
+				while (now > max && !maxRunning.compareAndSet(max, now)) {
+					max = maxRunning.get();
+				}
+				try {
+					JobletThreadPoolTest.this.release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					running.decrementAndGet();
+					done.countDown();
+				}
+			}
+		};
+
+		assertTrue(this.pool.runInThread(joblet));
+		assertTrue(this.pool.runInThread(joblet));
+		assertEquals(MAX_CONCURRENCY, this.pool.getActiveCount());
+
+		Thread submitter = new Thread() {
+			@Override
+			public void run() {
+				for (int i = 0; i < 3; i++) {
+					JobletThreadPoolTest.this.pool.runInThread(joblet);
+				}
+			}
+		};
+		submitter.start();
+		awaitBlocked(submitter);
+		assertEquals(MAX_CONCURRENCY, this.pool.getActiveCount());
+
+		this.release.countDown();
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		submitter.join();
+		assertTrue(maxRunning.get() <= MAX_CONCURRENCY);
+		awaitIdle();
+	}
+
+	/**
+	 * tests, that the permit of a joblet refused after shut down is
+	 * released.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	@Test(timeout = 10000)
+	public void testPermitIsReleasedOnRejection() throws InterruptedException {
+		Runnable blocking = new Runnable() {
+			public void run() {
+				try {
+					JobletThreadPoolTest.this.release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		for (int i = 0; i < MAX_CONCURRENCY; i++) {
+			assertTrue(this.pool.runInThread(blocking));
+		}
+
+		/* waits for a permit, which is granted after the shut down */
+		final AtomicBoolean accepted = new AtomicBoolean(true);
+		Thread submitter = new Thread() {
+			@Override
+			public void run() {
+				accepted.set(JobletThreadPoolTest.this.pool
+						.runInThread(new Runnable() {
+							public void run() {
+								// nothing to do
+							}
+						}));
+			}
+		};
+		submitter.start();
+		awaitBlocked(submitter);
+
+		this.pool.shutdown(false);
+		this.release.countDown();
+		submitter.join();
+
+		assertFalse(accepted.get());
+		awaitIdle();
+		assertEquals(0, this.pool.getActiveCount());
+	}
+
+	/**
+	 * tests, that {@code shutdown(true)} waits for the running joblets.
+	 */
+	@Test(timeout = 10000)
+	public void testShutdownWaitsForRunningJoblets() {
+		final AtomicBoolean finished = new AtomicBoolean(false);
+		assertTrue(this.pool.runInThread(new Runnable() {
+			public void run() {
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				finished.set(true);
+			}
+		}));
+		this.pool.shutdown(true);
+		assertTrue(finished.get());
+		assertEquals(0, this.pool.getActiveCount());
+		assertFalse(this.pool.runInThread(new Runnable() {
+			public void run() {
+				// nothing to do
+			}
+		}));
+	}
+
+	/**
+	 * tests, that {@code shutdown(true)} interrupts the joblets still running
+	 * after the drain timeout instead of waiting for them.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	@Test(timeout = 10000)
+	public void testShutdownInterruptsJobletsAfterDrainTimeout()
+			throws InterruptedException {
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		final CountDownLatch started = new CountDownLatch(1);
+		assertTrue(this.pool.runInThread(new Runnable() {
+			public void run() {
+				started.countDown();
+				try {
+					JobletThreadPoolTest.this.release.await();
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+			}
+		}));
+		started.await();
+		this.pool.setDrainTimeout(200);
+
+		long start = System.currentTimeMillis();
+		this.pool.shutdown(true);
+		long elapsed = System.currentTimeMillis() - start;
+
+		assertTrue("waited " + elapsed + " ms", elapsed >= 150
+				&& elapsed < 2000);
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+		awaitIdle();
+	}
+
+	/**
+	 * waits until the given thread is blocked waiting for a permit.
+	 *
+	 * @param thread
+	 *            the thread
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void awaitBlocked(final Thread thread)
+			throws InterruptedException {
+		while (thread.getState() != Thread.State.WAITING) {
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * waits until all permits have been released.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private void awaitIdle() throws InterruptedException {
+		while (this.pool.getActiveCount() > 0) {
+			Thread.sleep(10);
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.invocation.lifecycle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * tests the {@code LifecyclePhaseSwitch}.
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ */
+public class LifecyclePhaseSwitchTest {
+
+	/**
+	 * tests a reload while ready.
+	 */
+	@Test
+	public void testReloading() {
+		LifecyclePhaseSwitch phase = new LifecyclePhaseSwitch(
+				LifecyclePhase.READY);
+		assertTrue(phase.beginReloading());
+		assertEquals(LifecyclePhase.RELOADING, phase.get());
+		assertTrue(phase.endReloading());
+		assertEquals(LifecyclePhase.READY, phase.get());
+	}
+
+	/**
+	 * tests, that a reload is not begun, unless the phase is {@code READY}.
+	 */
+	@Test
+	public void testNoReloadingUnlessReady() {
+		LifecyclePhaseSwitch phase = new LifecyclePhaseSwitch(
+				LifecyclePhase.WARMING_UP);
+		assertFalse(phase.beginReloading());
+		assertFalse(phase.endReloading());
+		assertEquals(LifecyclePhase.WARMING_UP, phase.get());
+	}
+
+	/**
+	 * tests, that the end of a reload does not overwrite the
+	 * {@code STOPPING} of a shut down begun during the reload.
+	 */
+	@Test
+	public void testReloadOverlappingShutdown() {
+		LifecyclePhaseSwitch phase = new LifecyclePhaseSwitch(
+				LifecyclePhase.READY);
+		assertTrue(phase.beginReloading());
+		phase.set(LifecyclePhase.STOPPING);
+		assertFalse(phase.endReloading());
+		assertEquals(LifecyclePhase.STOPPING, phase.get());
+		assertFalse(phase.beginReloading());
+		assertEquals(LifecyclePhase.STOPPING, phase.get());
+	}
+
+	/**
+	 * tests a shut down overlapping reloads running on another thread, the
+	 * way the {@code WatchDog} runs them.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	@Test(timeout = 10000)
+	public void testShutdownDuringConcurrentReloads()
+			throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			final LifecyclePhaseSwitch phase = new LifecyclePhaseSwitch(
+					LifecyclePhase.READY);
+			final AtomicBoolean stop = new AtomicBoolean();
+			final CountDownLatch reloading = new CountDownLatch(1);
+			Thread watchDog = new Thread(new Runnable() {
+				public void run() {
+					while (!stop.get()) {
+						if (phase.beginReloading()) {
+							reloading.countDown();
+							Thread.yield();
+							phase.endReloading();
+						}
+					}
+				}
+			});
+			watchDog.start();
+			assertTrue(reloading.await(5, TimeUnit.SECONDS));
+			phase.set(LifecyclePhase.STOPPING);
+			stop.set(true);
+			watchDog.join();
+			assertEquals(LifecyclePhase.STOPPING, phase.get());
+		}
+	}
+
+}
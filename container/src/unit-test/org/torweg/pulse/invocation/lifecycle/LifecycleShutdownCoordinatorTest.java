@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.invocation.lifecycle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * tests the {@code LifecycleShutdownCoordinator}.
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ */
+public class LifecycleShutdownCoordinatorTest {
+
+	/**
+	 * the deadline used by the tests in milliseconds.
+	 */
+	private static final long TIMEOUT = 200;
+
+	/**
+	 * released to let blocking steps finish.
+	 */
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	/**
+	 * a step blocking until {@link #release} is counted down.
+	 */
+	private final Runnable blocking = new Runnable() {
+		public void run() {
+			try {
+				LifecycleShutdownCoordinatorTest.this.release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	};
+
+	/**
+	 * releases the blocking steps.
+	 */
+	@After
+	public void tearDown() {
+		this.release.countDown();
+	}
+
+	/**
+	 * tests steps finishing in time.
+	 */
+	@Test(timeout = 10000)
+	public void testStepsFinishing() {
+		LifecycleShutdownCoordinator coordinator = new LifecycleShutdownCoordinator(
+				TIMEOUT);
+		Recorder first = new Recorder();
+		Recorder second = new Recorder();
+		assertTrue(coordinator.run("first", TIMEOUT, first));
+		Map<String, Runnable> steps = new LinkedHashMap<String, Runnable>();
+		steps.put("second", second);
+		assertTrue(coordinator.runConcurrently(steps, TIMEOUT, "first"));
+
+		assertTrue(first.ran.get());
+		assertTrue(second.ran.get());
+		assertTrue(coordinator.report().isEmpty());
+		assertTrue(coordinator.getSkipped().isEmpty());
+	}
+
+	/**
+	 * tests, that a step still running is given up on after its budget and
+	 * reported, leaving the rest of the deadline to the following steps.
+	 */
+	@Test(timeout = 10000)
+	public void testBudget() {
+		LifecycleShutdownCoordinator coordinator = new LifecycleShutdownCoordinator(
+				TIMEOUT * 10);
+		long start = System.currentTimeMillis();
+		assertFalse(coordinator.run("blocking", TIMEOUT, this.blocking));
+		long elapsed = System.currentTimeMillis() - start;
+
+		assertTrue("waited " + elapsed + " ms", elapsed >= TIMEOUT - 50
+				&& elapsed < TIMEOUT * 5);
+		assertTrue(coordinator.remaining() > TIMEOUT * 5);
+		assertEquals(Collections.singletonList("blocking"),
+				coordinator.report());
+		assertEquals(Collections.singletonList("blocking"),
+				coordinator.getStillRunning());
+
+		this.release.countDown();
+		assertTrue(coordinator.awaitStillRunning(5000));
+		assertTrue(coordinator.getStillRunning().isEmpty());
+	}
+
+	/**
+	 * tests, that a budget exceeding the deadline is cut to the deadline.
+	 */
+	@Test(timeout = 10000)
+	public void testDeadline() {
+		LifecycleShutdownCoordinator coordinator = new LifecycleShutdownCoordinator(
+				TIMEOUT);
+		long start = System.currentTimeMillis();
+		assertFalse(coordinator.run("blocking", TIMEOUT * 50, this.blocking));
+		long elapsed = System.currentTimeMillis() - start;
+
+		assertTrue("waited " + elapsed + " ms", elapsed >= TIMEOUT - 50
+				&& elapsed < TIMEOUT * 10);
+		assertEquals(0, coordinator.remaining());
+	}
+
+	/**
+	 * tests, that only the steps depending on an unfinished step are skipped.
+	 */
+	@Test(timeout = 10000)
+	public void testDependentStepsAreSkipped() {
+		LifecycleShutdownCoordinator coordinator = new LifecycleShutdownCoordinator(
+				TIMEOUT * 10);
+		Recorder dependent = new Recorder();
+		Recorder transitive = new Recorder();
+		Recorder independent = new Recorder();
+		assertFalse(coordinator.run("blocking", TIMEOUT, this.blocking));
+		assertFalse(coordinator.run("dependent", TIMEOUT, dependent,
+				"blocking"));
+		Map<String, Runnable> steps = new LinkedHashMap<String, Runnable>();
+		steps.put("transitive", transitive);
+		assertFalse(coordinator.runConcurrently(steps, TIMEOUT, "dependent"));
+		assertTrue(coordinator.run("independent", TIMEOUT, independent));
+
+		assertFalse(dependent.ran.get());
+		assertFalse(transitive.ran.get());
+		assertTrue(independent.ran.get());
+		assertEquals(Arrays.asList("dependent", "transitive"),
+				coordinator.getSkipped());
+		assertEquals(Collections.singletonList("blocking"),
+				coordinator.report());
+	}
+
+	/**
+	 * tests, that a step depending on a step, which has finished after its
+	 * budget, is run.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	@Test(timeout = 10000)
+	public void testStepAfterLateStepIsRun() throws InterruptedException {
+		LifecycleShutdownCoordinator coordinator = new LifecycleShutdownCoordinator(
+				TIMEOUT * 10);
+		Recorder dependent = new Recorder();
+		assertFalse(coordinator.run("blocking", TIMEOUT, this.blocking));
+		this.release.countDown();
+		while (!coordinator.getStillRunning().isEmpty()) {
+			Thread.sleep(10);
+		}
+		assertTrue(coordinator.run("dependent", TIMEOUT, dependent,
+				"blocking"));
+		assertTrue(dependent.ran.get());
+	}
+
+	/**
+	 * tests, that a failing step does not stop the following steps.
+	 */
+	@Test(timeout = 10000)
+	public void testFailingStepDoesNotStopFollowingSteps() {
+		LifecycleShutdownCoordinator coordinator = new LifecycleShutdownCoordinator(
+				TIMEOUT);
+		Recorder next = new Recorder();
+		assertTrue(coordinator.run("failing", TIMEOUT, new Runnable() {
+			public void run() {
+				throw new IllegalStateException("failing on purpose");
+			}
+		}));
+		assertTrue(coordinator.run("next", TIMEOUT, next, "failing"));
+
+		assertTrue(next.ran.get());
+		assertTrue(coordinator.report().isEmpty());
+	}
+
+	/**
+	 * a step recording that it has been run.
+	 */
+	private static final class Recorder implements Runnable {
+
+		/**
+		 * flag, indicating whether the step has been run.
+		 */
+		private final AtomicBoolean ran = new AtomicBoolean(false);
+
+		/**
+		 * records the run.
+		 */
+		public void run() {
+			this.ran.set(true);
+		}
+	}
+
+}
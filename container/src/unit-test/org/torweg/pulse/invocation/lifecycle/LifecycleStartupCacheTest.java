@@ -0,0 +1,330 @@
+/*
+ * Copyright 2026 :torweg free software group
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.torweg.pulse.invocation.lifecycle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * tests the {@code LifecycleStartupCache}.
+ *
+ * @author Thomas Weber
+ * @version $Revision$
+ */
+public class LifecycleStartupCacheTest {
+
+	/**
+	 * the temporary directory.
+	 */
+	private File dir;
+
+	/**
+	 * the cache file.
+	 */
+	private File cacheFile;
+
+	/**
+	 * the descriptor file.
+	 */
+	private File descriptor;
+
+	/**
+	 * the parsed descriptor.
+	 */
+	private ArrayList<String> value;
+
+	/**
+	 * creates the temporary directory and the descriptor.
+	 *
+	 * @throws IOException
+	 *             on errors
+	 */
+	@Before
+	public void setUp() throws IOException {
+		this.dir = File.createTempFile("startup-cache", "");
+		assertTrue(this.dir.delete() && this.dir.mkdir());
+		this.cacheFile = new File(this.dir, "startup-cache.ser");
+		this.descriptor = new File(this.dir, "component.xml");
+		write(this.descriptor, "<component name=\"a\"/>");
+		this.value = new ArrayList<String>(Arrays.asList("a", "b"));
+	}
+
+	/**
+	 * deletes the temporary directory.
+	 */
+	@After
+	public void tearDown() {
+		File[] files = this.dir.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		this.dir.delete();
+	}
+
+	/**
+	 * tests a cache miss.
+	 */
+	@Test
+	public void testMiss() {
+		LifecycleStartupCache cache = newCache();
+		assertNull(cache.get(this.descriptor));
+		cache.save();
+		assertFalse(this.cacheFile.exists());
+	}
+
+	/**
+	 * tests a cache hit after loading the cache file.
+	 */
+	@Test
+	public void testHit() {
+		LifecycleStartupCache cache = newCache();
+		cache.put(this.descriptor, this.value);
+		assertEquals(this.value, cache.get(this.descriptor));
+		cache.save();
+
+		assertEquals(this.value, newCache().get(this.descriptor));
+	}
+
+	/**
+	 * tests a changed descriptor.
+	 *
+	 * @throws IOException
+	 *             on errors
+	 */
+	@Test
+	public void testChangedDescriptor() throws IOException {
+		LifecycleStartupCache cache = newCache();
+		cache.put(this.descriptor, this.value);
+		cache.save();
+
+		/* same size, different content */
+		write(this.descriptor, "<component name=\"b\"/>");
+		touch(this.descriptor);
+		assertNull(newCache().get(this.descriptor));
+
+		/* different size */
+		write(this.descriptor, "<component name=\"abc\"/>");
+		assertNull(newCache().get(this.descriptor));
+	}
+
+	/**
+	 * tests a descriptor touched without being changed.
+	 */
+	@Test
+	public void testTouchedWithoutChange() {
+		LifecycleStartupCache cache = newCache();
+		cache.put(this.descriptor, this.value);
+		cache.save();
+		long saved = this.cacheFile.lastModified();
+
+		touch(this.descriptor);
+		cache = newCache();
+		assertEquals(this.value, cache.get(this.descriptor));
+
+		/* the new modification time is stored */
+		this.cacheFile.setLastModified(saved - 10000);
+		cache.save();
+		assertTrue(this.cacheFile.lastModified() > saved - 10000);
+		assertEquals(this.value, newCache().get(this.descriptor));
+	}
+
+	/**
+	 * tests, that the entries of descriptors not looked up are dropped on
+	 * saving.
+	 *
+	 * @throws IOException
+	 *             on errors
+	 */
+	@Test
+	public void testUnusedEntriesAreDropped() throws IOException {
+		File removed = new File(this.dir, "removed.xml");
+		write(removed, "<component name=\"removed\"/>");
+		LifecycleStartupCache cache = newCache();
+		cache.put(this.descriptor, this.value);
+		cache.put(removed, this.value);
+		cache.save();
+
+		cache = newCache();
+		assertEquals(this.value, cache.get(this.descriptor));
+		cache.save();
+
+		cache = newCache();
+		assertNull(cache.get(removed));
+		assertEquals(this.value, cache.get(this.descriptor));
+	}
+
+	/**
+	 * tests, that a corrupt cache file is discarded.
+	 *
+	 * @throws IOException
+	 *             on errors
+	 */
+	@Test
+	public void testCorruptFileIsDiscarded() throws IOException {
+		write(this.cacheFile, "not a startup cache");
+		LifecycleStartupCache cache = newCache();
+		assertNull(cache.get(this.descriptor));
+
+		/* the cache is usable and replaces the corrupt file */
+		cache.put(this.descriptor, this.value);
+		cache.save();
+		assertEquals(this.value, newCache().get(this.descriptor));
+	}
+
+	/**
+	 * tests, that a cache file written for a different type is discarded.
+	 */
+	@Test
+	public void testFingerprintMismatch() {
+		LifecycleStartupCache cache = newCache();
+		cache.put(this.descriptor, this.value);
+		cache.save();
+
+		assertNull(new LifecycleStartupCache(this.cacheFile, Integer.class)
+				.get(this.descriptor));
+	}
+
+	/**
+	 * tests, that classes outside the allow-list are not read.
+	 */
+	@Test
+	public void testDisallowedClassIsNotRead() {
+		ArrayList<Object> uris = new ArrayList<Object>();
+		uris.add(URI.create("http://example.com/"));
+		LifecycleStartupCache cache = newCache();
+		cache.put(this.descriptor, uris);
+		cache.save();
+
+		assertNull(newCache().get(this.descriptor));
+	}
+
+	/**
+	 * tests, that values not restored completely by deserialisation are not
+	 * cached.
+	 */
+	@Test
+	public void testNotRestorableValueIsNotCached() {
+		assertTrue(LifecycleStartupCache.isRestorable(this.value));
+		assertFalse(LifecycleStartupCache.isRestorable(new Object()));
+		assertFalse(LifecycleStartupCache.isRestorable(new WithTransient()));
+		assertFalse(LifecycleStartupCache.isRestorable(new WithCallback()));
+		ArrayList<Object> nested = new ArrayList<Object>();
+		nested.add(new WithTransient());
+		assertFalse(LifecycleStartupCache.isRestorable(nested));
+
+		LifecycleStartupCache cache = newCache();
+		cache.put(this.descriptor, new WithTransient());
+		assertNull(cache.get(this.descriptor));
+	}
+
+	/**
+	 * @return a new cache on the cache file
+	 */
+	private LifecycleStartupCache newCache() {
+		return new LifecycleStartupCache(this.cacheFile, String.class);
+	}
+
+	/**
+	 * moves the modification time of the given file ten seconds ahead.
+	 *
+	 * @param file
+	 *            the file
+	 */
+	private static void touch(final File file) {
+		assertTrue(file.setLastModified(file.lastModified() + 10000));
+	}
+
+	/**
+	 * writes the given content to the given file.
+	 *
+	 * @param file
+	 *            the file
+	 * @param content
+	 *            the content
+	 * @throws IOException
+	 *             on errors
+	 */
+	private static void write(final File file, final String content)
+			throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(content.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * a value with transient state.
+	 */
+	private static final class WithTransient implements Serializable {
+
+		/**
+		 * serialVersionUID.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * transient state.
+		 */
+		private transient Object state = new Object();
+	}
+
+	/**
+	 * a value with a JAXB unmarshal callback.
+	 */
+	private static final class WithCallback implements Serializable {
+
+		/**
+		 * serialVersionUID.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * the JAXB callback.
+		 *
+		 * @param unmarshaller
+		 *            the unmarshaller
+		 * @param parent
+		 *            the parent
+		 */
+		@SuppressWarnings("unused")
+		private void afterUnmarshal(final Object unmarshaller,
+				final Object parent) {
+			// nothing to do
+		}
+	}
+
+}